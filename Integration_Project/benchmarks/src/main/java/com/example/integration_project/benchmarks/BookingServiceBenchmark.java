@@ -0,0 +1,101 @@
+package com.example.integration_project.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.example.integration_project.Model.BookingService;
+import com.example.integration_project.Model.Movie;
+import com.example.integration_project.Model.Showroom;
+import com.example.integration_project.Model.Showtime;
+import com.example.integration_project.Model.Ticket;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks booking and cancelling through {@link BookingService} with the load
+ * spread over {@code rooms} showrooms, one showtime each.
+ *
+ * <p>Every thread sticks to one show, picked round robin. With one room all threads
+ * share a show and its lock; with many rooms each thread has a show of its own, so the
+ * throughput of the 4-thread and max-thread runs should grow close to linearly with the
+ * number of cores. Each operation books one seat and cancels it again, so the seat maps
+ * never fill up.</p>
+ *
+ * @author Ian
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingServiceBenchmark {
+
+    /** Number of showrooms the load is spread over. */
+    @Param({"1", "64"})
+    public int rooms;
+
+    private static final int ROOM_CAPACITY = 500;
+
+    private BookingService aBookings;
+    private Showtime[] aShowtimes;
+    private final AtomicInteger aNextThread = new AtomicInteger();
+
+    /** The show a benchmark thread books. */
+    @State(Scope.Thread)
+    public static class Show {
+        Showtime aShowtime;
+
+        @Setup(Level.Iteration)
+        public void pick(BookingServiceBenchmark benchmark) {
+            aShowtime = benchmark.aShowtimes[benchmark.aNextThread.getAndIncrement() % benchmark.aShowtimes.length];
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        aBookings = BookingService.getInstance();
+        Movie movie = new Movie("Benchmark");
+        aShowtimes = new Showtime[rooms];
+        for (int i = 0; i < rooms; i++) {
+            aShowtimes[i] = new Showtime(movie, LocalDateTime.now().plusDays(1), new Showroom(i + 1, ROOM_CAPACITY));
+        }
+    }
+
+    private boolean bookAndCancel(Show show) {
+        List<Ticket> tickets = aBookings.book(show.aShowtime, 1);
+        return aBookings.cancel(tickets.get(0).getaTicketID());
+    }
+
+    @Benchmark
+    public boolean bookAndCancel1Thread(Show show) {
+        return bookAndCancel(show);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean bookAndCancel4Threads(Show show) {
+        return bookAndCancel(show);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean bookAndCancelMaxThreads(Show show) {
+        return bookAndCancel(show);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.integration_project.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.example.integration_project.Model.Movie;
+import com.example.integration_project.Model.MovieManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the title lookups of {@link MovieManager}.
+ *
+ * <p>The catalog is pre-loaded with {@code movies} titles. {@code movieExists} is
+ * measured for a title in the middle of the catalog (hit) and a title that is not
+ * in it (miss), and {@code findByName} for a hit.</p>
+ *
+ * @author Ian
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MovieManagerBenchmark {
+
+    /** Number of movies loaded before measuring. */
+    @Param({"10", "1000", "100000", "1000000"})
+    public int movies;
+
+    private MovieManager aMovieManager;
+    private String aPresentTitle;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        aMovieManager = MovieManager.getMovieManagerInstance();
+        // One batch: each addMovie copies the catalog, so a million of them would be quadratic
+        List<Movie> catalog = new ArrayList<>(movies);
+        for (int i = 0; i < movies; i++) {
+            catalog.add(new Movie("Movie " + i));
+        }
+        aMovieManager.replaceMovies(catalog);
+        aPresentTitle = "MOVIE " + (movies / 2);
+    }
+
+    @Benchmark
+    public boolean movieExistsHit() {
+        return aMovieManager.movieExists(aPresentTitle);
+    }
+
+    @Benchmark
+    public boolean movieExistsMiss() {
+        return aMovieManager.movieExists("Not In Catalog");
+    }
+
+    @Benchmark
+    public Movie findByName() {
+        return aMovieManager.findByName(aPresentTitle);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean movieExistsHit4Threads() {
+        return movieExistsHit();
+    }
+}
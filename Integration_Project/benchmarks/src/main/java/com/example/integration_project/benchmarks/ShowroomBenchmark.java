@@ -0,0 +1,118 @@
+package com.example.integration_project.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.example.integration_project.Model.Movie;
+import com.example.integration_project.Model.Showroom;
+import com.example.integration_project.Model.Showtime;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the seat inventory of {@link Showroom}.
+ *
+ * <p>The room is pre-loaded with {@code tickets} booked seats spread over as many
+ * showtimes as needed. {@code bookSeat} keeps booking the current showtime and moves
+ * on to a fresh one whenever it sells out, so the inventory never runs dry.</p>
+ *
+ * @author Ian
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShowroomBenchmark {
+
+    /** Number of seats booked before measuring. */
+    @Param({"10", "1000", "100000", "1000000"})
+    public int tickets;
+
+    private static final int ROOM_CAPACITY = 500;
+
+    private Movie aMovie;
+    private Showroom aRoom;
+    private Showtime[] aBookedShowtimes;
+    private final AtomicReference<Showtime> aCurrentShowtime = new AtomicReference<>();
+
+    /** Per-thread cursor used to pick the showtime to look up. */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int aNext;
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        aMovie = new Movie("Benchmark");
+        aRoom = new Showroom(1, ROOM_CAPACITY);
+
+        int shows = (tickets + ROOM_CAPACITY - 1) / ROOM_CAPACITY;
+        aBookedShowtimes = new Showtime[shows];
+        int left = tickets;
+        for (int i = 0; i < shows; i++) {
+            aBookedShowtimes[i] = newShowtime();
+            int seats = Math.min(left, ROOM_CAPACITY);
+            aRoom.bookSeats(aBookedShowtimes[i], seats);
+            left -= seats;
+        }
+        aCurrentShowtime.set(newShowtime());
+    }
+
+    private Showtime newShowtime() {
+        return new Showtime(aMovie, LocalDateTime.now().plusDays(1), aRoom);
+    }
+
+    private int book() {
+        Showtime show = aCurrentShowtime.get();
+        try {
+            return aRoom.bookSeat(show);
+        } catch (IllegalStateException soldOut) {
+            aCurrentShowtime.compareAndSet(show, newShowtime());
+            return 0;
+        }
+    }
+
+    @Benchmark
+    public int bookSeat() {
+        return book();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int bookSeat4Threads() {
+        return book();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int bookSeatMaxThreads() {
+        return book();
+    }
+
+    @Benchmark
+    public int getBookedSeats(Cursor cursor) {
+        return aRoom.getBookedSeats(aBookedShowtimes[(cursor.aNext++ & Integer.MAX_VALUE) % aBookedShowtimes.length]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int getBookedSeats4Threads(Cursor cursor) {
+        return getBookedSeats(cursor);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.integration_project.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.example.integration_project.Model.Movie;
+import com.example.integration_project.Model.Showroom;
+import com.example.integration_project.Model.Showtime;
+import com.example.integration_project.Model.ShowtimeManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks browsing the showtimes of one movie.
+ *
+ * <p>The catalog is pre-loaded with {@code showtimes} showtimes, one a minute, spread over
+ * 100 movies and 200 rooms.
+ * {@code getShowtimes} reads the per-movie index of {@link ShowtimeManager};
+ * {@code scanShowtimes} is the full scan the browse screens used before.
+ * {@code getShowtimesBetween} lists the showtimes of a four-hour window from the start-time
+ * index, and {@code scanBetween} does the same with a full scan.</p>
+ *
+ * @author Ian
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShowtimeManagerBenchmark {
+
+    private static final int MOVIES = 100;
+    /** Enough rooms that showings starting a minute apart never overlap in one room. */
+    private static final int ROOMS = 200;
+
+    /** Number of showtimes loaded before measuring. */
+    @Param({"1000", "100000"})
+    public int showtimes;
+
+    private ShowtimeManager aShowtimeManager;
+    private Movie aMovie;
+    private LocalDateTime aWindowStart;
+    private LocalDateTime aWindowEnd;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        aShowtimeManager = ShowtimeManager.getShowtimeManagerInstance();
+        List<Movie> movies = new ArrayList<>();
+        for (int i = 0; i < MOVIES; i++) {
+            movies.add(new Movie("Movie " + i));
+        }
+        List<Showroom> rooms = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) {
+            rooms.add(new Showroom(i + 1, 10, 10));
+        }
+        LocalDateTime start = LocalDateTime.now().plusYears(1);
+        // One batch: each addShowtime copies the catalog, so loading one by one would be quadratic
+        List<Showtime> catalog = new ArrayList<>(showtimes);
+        for (int i = 0; i < showtimes; i++) {
+            catalog.add(new Showtime(movies.get(i % MOVIES), start.plusMinutes(i), rooms.get(i % ROOMS)));
+        }
+        aShowtimeManager.replaceShowtimes(catalog);
+        aMovie = movies.get(MOVIES / 2);
+        aWindowStart = start.plusMinutes(showtimes / 2);
+        aWindowEnd = aWindowStart.plusHours(4);
+    }
+
+    @Benchmark
+    public void getShowtimes(Blackhole pBlackhole) {
+        for (Showtime st : aShowtimeManager.getShowtimes(aMovie)) {
+            pBlackhole.consume(st);
+        }
+    }
+
+    @Benchmark
+    public void scanShowtimes(Blackhole pBlackhole) {
+        for (Showtime st : ShowtimeManager.getCatalog().snapshot()) {
+            if (st.getMovie() == aMovie) {
+                pBlackhole.consume(st);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Showtime> getShowtimesBetween() {
+        return aShowtimeManager.getShowtimesBetween(aWindowStart, aWindowEnd);
+    }
+
+    @Benchmark
+    public List<Showtime> scanBetween() {
+        List<Showtime> result = new ArrayList<>();
+        for (Showtime st : ShowtimeManager.getCatalog().snapshot()) {
+            if (!st.getShowtime().isBefore(aWindowStart) && st.getShowtime().isBefore(aWindowEnd)) {
+                result.add(st);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.integration_project.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.example.integration_project.Model.TicketIdGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks issuing ticket ids: random UUID strings, as tickets used to get, against
+ * the numbers of {@link TicketIdGenerator}, alone and formatted for display.
+ *
+ * @author Ian
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketIdBenchmark {
+
+    private final TicketIdGenerator aGenerator = new TicketIdGenerator(0);
+
+    @Benchmark
+    public String randomUUID() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String randomUUID4Threads() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public long nextId() {
+        return aGenerator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long nextId4Threads() {
+        return aGenerator.nextId();
+    }
+
+    @Benchmark
+    public String nextIdFormatted() {
+        return TicketIdGenerator.format(aGenerator.nextId());
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.integration_project.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.example.integration_project.Model.Movie;
+import com.example.integration_project.Model.Showroom;
+import com.example.integration_project.Model.Showtime;
+import com.example.integration_project.Model.Ticket;
+import com.example.integration_project.Model.TicketManager;
+import com.example.integration_project.Model.TicketStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks ticket insertion and the sales counts of {@link TicketManager}.
+ *
+ * <p>The manager is pre-loaded with {@code tickets} tickets spread over
+ * {@value #MOVIES} movies and {@value #SHOWTIMES} showtimes. Each parameter runs
+ * in its own fork, so the singleton starts empty every time. {@code addTicket}
+ * mutates an {@code ObservableList} and therefore only runs single-threaded.
+ * The {@code countBy} benchmarks scan the list comparing display strings, the
+ * {@code getSoldBy} benchmarks read the id-keyed counters the manager keeps up to date,
+ * and {@code findTicket} and {@code validateTicket} look a ticket up through the id index.</p>
+ *
+ * @author Dieudonné
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketManagerBenchmark {
+
+    /** Number of tickets loaded before measuring. */
+    @Param({"10", "1000", "100000", "1000000"})
+    public int tickets;
+
+    static final int MOVIES = 20;
+    static final int SHOWTIMES = 200;
+
+    private TicketManager aTicketManager;
+    private List<Ticket> aTickets;
+    private Ticket aNewTicket;
+    private String aLookupID;
+    private Movie[] aMovies;
+    private Showtime[] aShowtimes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        aTicketManager = TicketManager.getInstance();
+        aMovies = new Movie[MOVIES];
+        for (int i = 0; i < MOVIES; i++) {
+            aMovies[i] = new Movie("Movie " + i);
+        }
+        Showroom room = new Showroom(1, 500);
+        aShowtimes = new Showtime[SHOWTIMES];
+        for (int i = 0; i < SHOWTIMES; i++) {
+            aShowtimes[i] = new Showtime(aMovies[i % MOVIES], LocalDateTime.now().plusDays(1).plusMinutes(i), room);
+        }
+        LocalDateTime purchased = LocalDateTime.now();
+        for (int i = 0; i < tickets; i++) {
+            aTicketManager.addTicket(new Ticket("T" + i, aShowtimes[i % SHOWTIMES], null, purchased));
+        }
+        aTickets = aTicketManager.getTickets();
+        aNewTicket = new Ticket("NEW", aShowtimes[0], null, purchased);
+        aLookupID = "T" + (tickets * 3 / 4);
+    }
+
+    @TearDown(Level.Iteration)
+    public void trim() {
+        // Drop the tickets added while measuring so every iteration starts from the same size
+        if (aTicketManager.getTickets().size() > tickets) {
+            aTicketManager.getTickets().remove(tickets, aTicketManager.getTickets().size());
+        }
+    }
+
+    @Benchmark
+    public Ticket addTicket() {
+        aTicketManager.addTicket(aNewTicket);
+        return aNewTicket;
+    }
+
+    @Benchmark
+    public long countByMovie() {
+        return TicketManager.countByMovie(aTickets, aMovies[7].getName());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long countByMovie4Threads() {
+        return countByMovie();
+    }
+
+    @Benchmark
+    public long countByShowtime() {
+        return TicketManager.countByShowtime(aTickets, aShowtimes[77].toString());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long countByShowtime4Threads() {
+        return countByShowtime();
+    }
+
+    @Benchmark
+    public Ticket findTicket() {
+        return aTicketManager.findTicket(aLookupID);
+    }
+
+    @Benchmark
+    public TicketStore.Admission validateTicket() {
+        return aTicketManager.validateTicket(aLookupID);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public TicketStore.Admission validateTicket4Threads() {
+        return validateTicket();
+    }
+
+    @Benchmark
+    public long getSoldByMovie() {
+        return aTicketManager.getSoldByMovie(aMovies[7].getId());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long getSoldByMovie4Threads() {
+        return getSoldByMovie();
+    }
+
+    @Benchmark
+    public long getSoldByShowtime() {
+        return aTicketManager.getSoldByShowtime(aShowtimes[77].getId());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long getSoldByShowtime4Threads() {
+        return getSoldByShowtime();
+    }
+}
@@ -7,6 +7,7 @@ import javafx.scene.control.DatePicker;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -236,8 +237,9 @@ public class AddEditController {
                 aDateLabel.setVisible(false);
                 aTimeLabel.setVisible(false);
                 aRoomLabel.setVisible(false);
-                aCapacityLabel.setVisible(false);
-                aCapacityTextField.setVisible(false);
+                aCapacityLabel.setText("Runtime (min)");
+                aCapacityLabel.setVisible(true);
+                aCapacityTextField.setVisible(true);
                 break;
             case EDIT_MOVIE:
                 aTitleLabel.setText("Edit Movie");
@@ -251,8 +253,9 @@ public class AddEditController {
                 aDateLabel.setVisible(false);
                 aTimeLabel.setVisible(false);
                 aRoomLabel.setVisible(false);
-                aCapacityLabel.setVisible(false);
-                aCapacityTextField.setVisible(false);
+                aCapacityLabel.setText("Runtime (min)");
+                aCapacityLabel.setVisible(true);
+                aCapacityTextField.setVisible(true);
                 break;
             case ADD_SHOWTIME:
                 aTitleLabel.setText("Add Showtime");
@@ -374,7 +377,7 @@ public class AddEditController {
      * 
      * <p>Field population strategy:
      * <ul>
-     *   <li>{@code EDIT_MOVIE} - Populates name field with the movie's name</li>
+     *   <li>{@code EDIT_MOVIE} - Populates name and runtime fields with the movie's name and runtime</li>
      *   <li>{@code EDIT_SHOWTIME} - Populates movie choice, date picker, time field, and room choice</li>
      *   <li>{@code EDIT_ROOM} - Populates room number and capacity fields as strings</li>
      *   <li>Add modes - No fields are populated (form remains empty for new entries)</li>
@@ -395,6 +398,7 @@ public class AddEditController {
             case EDIT_MOVIE:
                 Movie movie = (Movie) aCurrentObject;
                 aNameTextField.setText(movie.getName());
+                aCapacityTextField.setText(String.valueOf(movie.getRuntime().toMinutes()));
                 break;
             case EDIT_SHOWTIME:
                 Showtime showtime = (Showtime) aCurrentObject;
@@ -421,12 +425,12 @@ public class AddEditController {
      * 
      * <p>Operation breakdown by mode:
      * <ul>
-     *   <li>{@code ADD_MOVIE} - Validates name, creates new Movie, calls manager.addMovie()</li>
-     *   <li>{@code EDIT_MOVIE} - Validates name, updates existing Movie, changes persist through reference</li>
+     *   <li>{@code ADD_MOVIE} - Validates name and runtime, creates new Movie, calls manager.addMovie()</li>
+     *   <li>{@code EDIT_MOVIE} - Validates name and runtime, updates existing Movie, changes persist through reference</li>
      *   <li>{@code ADD_SHOWTIME} - Validates all selections, combines date/time into LocalDateTime,
      *       creates new Showtime, calls manager.addShowtime()</li>
      *   <li>{@code EDIT_SHOWTIME} - Validates all selections, updates existing Showtime properties
-     *       via setMovie(), setShowroom(), setDate(), setTime()</li>
+     *       at once via reschedule()</li>
      *   <li>{@code ADD_ROOM} - Validates and parses room number and capacity, creates new Showroom,
      *       calls manager.addShowroom()</li>
      *   <li>{@code EDIT_ROOM} - Validates and parses room number and capacity, updates existing
@@ -476,10 +480,12 @@ public class AddEditController {
                     return;
                 }
                 try {
-                    Movie newMovie = new Movie(movieName);
+                    Movie newMovie = new Movie(movieName, readRuntime());
                     aMovieManager.addMovie(newMovie);
                     AlertHelper.showInfoAlert("Success", "Movie Added", "Movie has been added successfully");
                     closeWindow();
+                } catch (NumberFormatException e) {
+                    AlertHelper.showErrorAlert("Error", "Invalid Number", "Runtime must be a number of minutes");
                 } catch (IllegalArgumentException e) {
                     AlertHelper.showErrorAlert("Error", "Invalid Movie", e.getMessage());
                 }
@@ -492,11 +498,14 @@ public class AddEditController {
                     return;
                 }
                 try {
+                    Duration runtime = readRuntime();
                     Movie movie = (Movie) aCurrentObject;
-                    movie.setMovieName(movieName);
+                    movie.update(movieName, runtime);
                     AlertHelper.showInfoAlert("Success", "Movie Updated", 
                         "Movie has been updated successfully");
                     closeWindow();
+                } catch (NumberFormatException e) {
+                    AlertHelper.showErrorAlert("Error", "Invalid Number", "Runtime must be a number of minutes");
                 } catch (IllegalArgumentException e) {
                     AlertHelper.showErrorAlert("Error", "Invalid Movie", e.getMessage());
                 }
@@ -572,10 +581,10 @@ public class AddEditController {
                         }
                         
                         Showtime showtime = (Showtime) aCurrentObject;
-                        showtime.setMovie(aMovieChoiceBox.getValue());
-                        showtime.setShowroom(aRoomChoiceBox.getValue());
-                        showtime.setDate(aDatePicker.getValue());
-                        showtime.setTime(aTimeTextField.getText().trim());
+                        // All at once, so moving to a slot freed by this same edit is not a conflict
+                        LocalTime time = LocalTime.parse(aTimeTextField.getText().trim());
+                        showtime.reschedule(aMovieChoiceBox.getValue(),
+                                LocalDateTime.of(aDatePicker.getValue(), time), aRoomChoiceBox.getValue());
                         AlertHelper.showInfoAlert("Success", "Showtime Updated", 
                             "Showtime has been updated successfully");
                         closeWindow();
@@ -642,6 +651,17 @@ public class AddEditController {
         }
     }
     
+    /**
+     * Reads the runtime field of the movie form.
+     * 
+     * @return the runtime, or the default runtime if the field is empty
+     * @throws NumberFormatException if the field is not a whole number of minutes
+     */
+    private Duration readRuntime() {
+        String minutes = aCapacityTextField.getText().trim();
+        return minutes.isEmpty() ? Movie.DEFAULT_RUNTIME : Duration.ofMinutes(Integer.parseInt(minutes));
+    }
+
     /**
      * Handles the Cancel button click event.
      * 
@@ -1,8 +1,7 @@
 package com.example.integration_project.Controller;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
 import java.util.ArrayList;
-
 import java.util.List;
 import java.util.UUID;
 
@@ -12,6 +11,8 @@ import com.example.integration_project.Model.*;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.ListView;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.SpinnerValueFactory;
 import javafx.stage.Stage;
 
 /**
@@ -40,6 +41,16 @@ public class ClientDashboardController {
     @FXML
     private ListView<String> aDetailsListView;
 
+    /** The spinner selecting how many tickets to book at once. */
+    @FXML
+    private Spinner<Integer> aQuantitySpinner;
+
+    /** The largest group that can be booked in a single click. */
+    private static final int MAX_GROUP_SIZE = 10;
+
+    /** How long seats stay held while the customer confirms the payment. */
+    private static final Duration HOLD_TIME_TO_LIVE = Duration.ofMinutes(5);
+
     /** The button used to log out and close the dashboard window. */
     @FXML
     private Button aLogoutButton;
@@ -59,6 +70,16 @@ public class ClientDashboardController {
     /** Ordered list of {@link Showroom} objects corresponding to the items displayed in {@code aDetailsListView}. */
     private final List<Showroom> aShowroomList = new ArrayList<>();
 
+    /**
+     * Idempotency key of the booking being made. It is renewed when the user changes the
+     * movie, showtime or quantity and once a booking went through, so a retried click on the
+     * same selection cannot book a second set of seats, while the next booking still can.
+     */
+    private String aBookingRequestID = UUID.randomUUID().toString();
+
+    /** True while the details list is being refilled, so its selection events are not the user's. */
+    private boolean aRefreshing;
+
     /** The stage/window hosting this controller's view. Used primarily for closing the window. */
     private Stage aStage;
 
@@ -72,6 +93,8 @@ public class ClientDashboardController {
         try{
             // Populates the movie list with all available movies
             aMoviesListView.setItems(MovieManager.getMovies());
+            aQuantitySpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, MAX_GROUP_SIZE, 1));
+            aQuantitySpinner.valueProperty().addListener((obs, oldValue, newValue) -> renewBookingRequest());
 
             setupMovieSelection();
             setupDetailSelection();
@@ -86,6 +109,9 @@ public class ClientDashboardController {
      */
     private void setupMovieSelection() {
         aMoviesListView.getSelectionModel().selectedItemProperty().addListener((obs, oldMovie, newMovie) -> {
+            if (newMovie != aSelectedMovie) {
+                renewBookingRequest();
+            }
             aSelectedMovie = newMovie;
             loadPairsForMovie(newMovie);
         });
@@ -94,45 +120,59 @@ public class ClientDashboardController {
     /**
      * Populates the details list with showtime and showroom information for the given movie.
      * It clears and repopulates the synchronized lists ({@code aShowtimeList}, {@code aShowroomList}).
+     * The selected showtime stays selected if it is still listed, so refreshing the seat counts
+     * does not start a new booking request.
      *
      * @param movie The {@link Movie} for which to load showtime.
      */
     private void loadPairsForMovie(Movie movie) {
+        aRefreshing = true;
         try {
             aDetailsListView.getItems().clear();
             aShowtimeList.clear();
             aShowroomList.clear();
-            aSelectedShowtime = null;
-            aSelectedShowroom = null;
-
-            if (movie == null) return;
-
-            // Iterate through all showtime to find matches for the selected movie
-            for (Showtime st : ShowtimeManager.getShowtime()) {
-                if (st.getMovie() == movie) {  // compare object references
-                    Showroom room = st.getShowroom();
-
-                    // Add to synchronized lists
-                    aShowtimeList.add(st);
-                    aShowroomList.add(room);
-
-                    int remaining = calculateRemainingSeats(room, st);
-
-                    // Add formatted string to details list
-                    aDetailsListView.getItems().add(
-                            st.getShowtime().toLocalDate() + " " +
-                                    st.getShowtime().toLocalTime() +
-                                    " | Room " + room.getRoomNumber() +
-                                    " | Seats Left: " + remaining
-                    );
-                }
+
+            if (movie == null) {
+                aSelectedShowtime = null;
+                aSelectedShowroom = null;
+                return;
+            }
+
+            // Browse the showtimes of the selected movie through the booking service
+            for (Showtime st : BookingService.getInstance().getShowtimes(movie)) {
+                Showroom room = st.getShowroom();
+
+                // Add to synchronized lists
+                aShowtimeList.add(st);
+                aShowroomList.add(room);
+
+                int remaining = calculateRemainingSeats(room, st);
+
+                // Add formatted string to details list
+                aDetailsListView.getItems().add(
+                        st.getShowtime().toLocalDate() + " " +
+                                st.getShowtime().toLocalTime() +
+                                " | Room " + room.getRoomNumber() +
+                                " | Seats Left: " + remaining
+                );
             }
 
             if (aDetailsListView.getItems().isEmpty()) {
                 aDetailsListView.getItems().add("No Showtime available for this movie.");
             }
+
+            // Keep the previous selection across the refresh
+            int index = aShowtimeList.indexOf(aSelectedShowtime);
+            if (index >= 0) {
+                aDetailsListView.getSelectionModel().select(index);
+            } else {
+                aSelectedShowtime = null;
+                aSelectedShowroom = null;
+            }
         }catch (Exception e){
             AlertHelper.showErrorAlert("Loading Showtimes Error", "Failed to load Showtimes through loadPairsForMovies", e.getMessage());
+        } finally {
+            aRefreshing = false;
         }
     }
 
@@ -140,25 +180,38 @@ public class ClientDashboardController {
      * Sets up a listener for the showtime/detail selection.
      * It uses the selected index to retrieve the corresponding {@link Showtime} and {@link Showroom}
      * objects from the internal ordered lists, setting {@code aSelectedShowtime} and {@code aSelectedShowroom}.
+     * Choosing a different showtime starts a new booking request; refreshing the list does not.
      */
     private void setupDetailSelection() {
         aDetailsListView.getSelectionModel().selectedIndexProperty().addListener((obs, oldVal, newVal) -> {
-            int index = newVal.intValue();
-            if (index < 0 || index >= aShowtimeList.size()) {
-                aSelectedShowtime = null;
-                aSelectedShowroom = null;
+            if (aRefreshing) {
                 return;
             }
+            int index = newVal.intValue();
+            Showtime showtime = index >= 0 && index < aShowtimeList.size() ? aShowtimeList.get(index) : null;
+            if (showtime != aSelectedShowtime) {
+                renewBookingRequest();
+            }
 
-            aSelectedShowtime = aShowtimeList.get(index);
-            aSelectedShowroom = aShowroomList.get(index);
+            aSelectedShowtime = showtime;
+            aSelectedShowroom = showtime == null ? null : aShowroomList.get(index);
         });
     }
 
+    /**
+     * Starts a new booking request with a fresh idempotency key.
+     */
+    private void renewBookingRequest() {
+        aBookingRequestID = UUID.randomUUID().toString();
+    }
+
     /**
      * Handler for the Book button.
-     * Validates movie and showtime selections, books a seat in the showroom, generates a new {@link Ticket},
-     * adds the ticket to the {@link TicketManager}, and updates the UI.
+     * Validates movie and showtime selections, then asks the {@link BookingService} to hold the selected
+     * number of seats in one all-or-nothing step while the customer confirms the payment. On confirmation
+     * the hold becomes one {@link Ticket} per seat, reported to the {@link TicketManager} in a single batch;
+     * otherwise the seats are released. Seats held longer than {@code HOLD_TIME_TO_LIVE} go back to the inventory on their own.
+     * A retried click for a request that already went through shows the original tickets again instead of booking.
      */
     @FXML
     private void onBookButtonClick() {
@@ -173,31 +226,62 @@ public class ClientDashboardController {
                 return;
             }
 
-            // Book seat (logic delegated to Showroom)
-            aSelectedShowroom.bookSeat(aSelectedShowtime);
+            // A retry of a request that already went through gets its original tickets back
+            BookingService bookings = BookingService.getInstance();
+            List<Ticket> issued = bookings.getIssued(aBookingRequestID);
+            if (issued != null) {
+                showTickets(issued);
+                return;
+            }
+
+            int quantity = aQuantitySpinner.getValue();
 
-            // Generate Ticket
-            Ticket ticket = new Ticket(
-                    UUID.randomUUID().toString(),
-                    aSelectedMovie.getName(),
-                    aSelectedShowtime.toString(),
-                    LocalDateTime.now()
-            );
+            // Hold all seats at once (fails when not enough seats are left)
+            SeatHold hold = bookings.hold(aSelectedShowtime, quantity, HOLD_TIME_TO_LIVE);
 
-            // Add the ticket to TicketManager
-            TicketManager.getInstance().addTicket(ticket);
+            boolean paid = AlertHelper.showConfirmationAlert("Confirm Booking",
+                    quantity + " seat(s) held until " + hold.getExpiresAt().toLocalTime().withNano(0),
+                    "Confirm the payment for " + aSelectedShowtime + "?");
+            if (!paid) {
+                bookings.release(hold);
+                loadPairsForMovie(aSelectedMovie);
+                return;
+            }
 
-            // Show ticket notification
-            AlertHelper.showInfoAlert("Booking Confirmed", "Your ticket is ready!", ticket.toString());
+            // Turn the hold into tickets; the booking service reports them to TicketManager in one batch
+            List<Ticket> tickets = bookings.confirm(aBookingRequestID, hold);
+            showTickets(tickets);
+            // The request is done; the next click on this selection is a new booking, not a retry
+            renewBookingRequest();
 
             // Refresh UI to show updated seat count
             loadPairsForMovie(aSelectedMovie);
 
+        } catch (IllegalStateException e) {
+            AlertHelper.showErrorAlert("Booking Error", "Seats Not Available", e.getMessage());
+            loadPairsForMovie(aSelectedMovie);
         } catch (Exception e) {
             AlertHelper.showErrorAlert("Booking Error", e.getMessage(), e.toString());
         }
     }
 
+    /**
+     * Shows the confirmation of issued tickets.
+     *
+     * @param tickets The tickets of one booking.
+     */
+    private void showTickets(List<Ticket> tickets) {
+        StringBuilder confirmation = new StringBuilder();
+        for (Ticket ticket : tickets) {
+            confirmation.append(ticket).append("\n");
+        }
+
+        // Show ticket notification
+        AlertHelper.showInfoAlert("Booking Confirmed",
+                tickets.size() == 1 ? "Your ticket is ready!" : "Your " + tickets.size() + " tickets are ready!",
+                confirmation.toString());
+    }
+
     /**
      * Calculates the number of remaining available seats for a specific showtime in a showroom.
      *
@@ -206,8 +290,7 @@ public class ClientDashboardController {
      * @return The number of seats remaining (Showroom Capacity - Booked Seats).
      */
     public int calculateRemainingSeats(Showroom showroom, Showtime showtime) {
-        int booked = showroom.getBookedSeats(showtime);
-        return showroom.getCapacity() - booked;
+        return showroom.getRemainingSeats(showtime);
     }
 
     /**
@@ -1,14 +1,17 @@
 package com.example.integration_project.Controller;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 import com.example.integration_project.Helpers.AlertHelper;
 import com.example.integration_project.Model.*;
 
-import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -105,9 +108,28 @@ public class ManagerDashboardController {
     private ShowroomManager aShowroomManager;
 
     /**
-     * Local copy of the complete list of all tickets for reporting/counting.
+     * Ticket manager whose sales counters feed the tickets report.
      */
-    private List<Ticket> aTicketList;
+    private TicketManager aTicketManager;
+
+    /**
+     * Daemon thread that starts the sales reports of every dashboard, one at a time
+     */
+    private static final ExecutorService REPORT_EXECUTOR = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "sales-report");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Engine that aggregates the sales report in parallel, off the FX thread
+     */
+    private final ReportEngine aReportEngine = new ReportEngine();
+
+    /**
+     * The sales report being calculated, if any
+     */
+    private Task<ReportEngine.SalesReport> aReportTask;
 
     /**
      * JavaFX initialize method. Sets up selection listener and refreshes initial view.
@@ -121,7 +143,7 @@ public class ManagerDashboardController {
             aShowroomManager = ShowroomManager.getShowroomManagerInstance();
             aShowtimeManager = ShowtimeManager.getShowtimeManagerInstance();
 
-            aTicketList = TicketManager.getInstance().getTickets();
+            aTicketManager = TicketManager.getInstance();
 
             refreshView(aCurrentView);
         } catch (Exception e) {
@@ -180,15 +202,7 @@ public class ManagerDashboardController {
 
                 aListView.getItems().clear();
 
-                // CORRECTED: Use aShowtimeManager.getShowtime() instead of static method
-                ObservableList<Showtime> allShowtime = ShowtimeManager.getShowtime();
-                List<Showtime> filtered = new ArrayList<>();
-
-                for (Showtime st : allShowtime) {
-                    if (st.getMovie() == selectedMovie) {
-                        filtered.add(st);
-                    }
-                }
+                List<Showtime> filtered = ShowtimeManager.getShowtimeManagerInstance().getShowtimes(selectedMovie);
 
                 if (filtered.isEmpty()) {
                     return;
@@ -226,21 +240,27 @@ public class ManagerDashboardController {
                 if (!MovieManager.getMovies().isEmpty()) {
                     // CORRECTED: Use aMovieManager.getMovies() instead of static method
                     for (Movie movie : MovieManager.getMovies()) {
-                        long soldByMovie = TicketManager.countByMovie(aTicketList, movie.getName());
+                        long soldByMovie = aTicketManager.getSoldByMovie(movie.getId());
                         aListView.getItems().add(
                                 "Movie: " + movie.getName() + " | Tickets Sold: " + soldByMovie
                         );
 
-                        // CORRECTED: Use aShowtimeManager.getShowtime() instead of static method
-                        for (Showtime st : ShowtimeManager.getShowtime()) {
-                            if (st.getMovie() == movie) {
-                                long soldByShowtime = TicketManager.countByShowtime(aTicketList, st.toString());
-                                aListView.getItems().add(
-                                        "  Showtime: " + st.getShowtime() + " | Tickets Sold: " + soldByShowtime
-                                );
-                            }
+                        for (Showtime st : aShowtimeManager.getShowtimes(movie)) {
+                            long soldByShowtime = aTicketManager.getSoldByShowtime(st.getId());
+                            aListView.getItems().add(
+                                    "  Showtime: " + st.getShowtime() + " | Tickets Sold: " + soldByShowtime
+                            );
                         }
                     }
+                    // Recent sales come straight from the rollup, without scanning the tickets
+                    SalesRollup rollup = aTicketManager.getSalesRollup();
+                    LocalDateTime now = LocalDateTime.now();
+                    aListView.getItems().add("Sales this hour: " + rollup.getSales(SalesRollup.Granularity.HOUR, now)
+                            + " | Today: " + rollup.getSales(SalesRollup.Granularity.DAY, now)
+                            + " | This week: " + rollup.getSales(SalesRollup.Granularity.WEEK, now)
+                            + " | Last 7 days: " + rollup.getSales(SalesRollup.Granularity.DAY, now.minusDays(6), now));
+
+                    loadSalesReport();
                 } else {
                     aListView.getItems().add("No movies or tickets available.");
                 }
@@ -252,6 +272,64 @@ public class ManagerDashboardController {
         }
     }
 
+    /**
+     * Calculates the sales by hour of purchase on a background thread and appends them to
+     * the tickets view once done. The ticket columns are copied here on the FX thread; the
+     * {@link ReportEngine} then aggregates them in parallel on the fork/join pool, together
+     * with the archived tickets of past showtimes. A refresh cancels the report still
+     * waiting or running, so only the latest one reaches the view.
+     */
+    private void loadSalesReport() {
+        if (aReportTask != null) {
+            aReportTask.cancel();
+        }
+        Supplier<ReportEngine.SalesReport> report = aReportEngine.prepare(aTicketManager.getTickets());
+        TicketArchive archive = aTicketManager.getArchive();
+        String pending = "Sales by purchase hour: calculating...";
+        aListView.getItems().add(pending);
+
+        Task<ReportEngine.SalesReport> task = new Task<>() {
+            @Override
+            protected ReportEngine.SalesReport call() {
+                ReportEngine.SalesReport live = report.get();
+                return archive == null ? live : live.plus(aReportEngine.report(archive));
+            }
+        };
+        task.setOnSucceeded(event -> {
+            // Drop the result if the view moved on while it was calculated
+            if (isStale(task)) {
+                return;
+            }
+            ReportEngine.SalesReport result = task.getValue();
+            aListView.getItems().remove(pending);
+            aListView.getItems().add("Sales by purchase hour (" + result.ticketCount() + " tickets):");
+            long[] hours = result.byPurchaseHour();
+            for (int hour = 0; hour < hours.length; hour++) {
+                if (hours[hour] > 0) {
+                    aListView.getItems().add(String.format("  %02d:00 - %02d:59 | Tickets Sold: %d", hour, hour, hours[hour]));
+                }
+            }
+        });
+        task.setOnFailed(event -> {
+            if (isStale(task)) {
+                return;
+            }
+            aListView.getItems().remove(pending);
+            AlertHelper.showErrorAlert("Report Error", "Failed to calculate the sales report",
+                    String.valueOf(task.getException()));
+        });
+        aReportTask = task;
+        REPORT_EXECUTOR.execute(task);
+    }
+
+    /**
+     * Tells if a sales report was replaced by a newer one or the view moved on while it
+     * was calculated.
+     */
+    private boolean isStale(Task<ReportEngine.SalesReport> pTask) {
+        return pTask != aReportTask || aCurrentView != DashboardView.TICKETS;
+    }
+
     /**
      * Switch to Movies view.
      *
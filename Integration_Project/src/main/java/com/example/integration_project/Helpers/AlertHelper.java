@@ -2,6 +2,7 @@ package com.example.integration_project.Helpers;
 
 import com.example.integration_project.Model.Ticket;
 import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -27,6 +28,15 @@ public class AlertHelper {
         alert.setContentText(pMessage);
         alert.showAndWait();
     }
+    // Confirmation Alert, returns true when the user clicks OK
+    public static boolean showConfirmationAlert(String pInfo, String pHeader, String pMessage) {
+
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle(pInfo);
+        alert.setHeaderText(pHeader);
+        alert.setContentText(pMessage);
+        return alert.showAndWait().filter(button -> button == ButtonType.OK).isPresent();
+    }
     // Ticket ticket = new Ticket("T102AQ5");
     // AlertHelper.showTicketConfirmationAlert(ticket);
 
@@ -0,0 +1,42 @@
+package com.example.integration_project.Helpers;
+
+import java.util.List;
+import java.util.Set;
+
+import com.example.integration_project.Model.BookingService;
+import com.example.integration_project.Model.Ticket;
+import com.example.integration_project.Model.TicketManager;
+
+/**
+ * <h1>FxBookingBridge</h1>
+ * Moves the tickets issued and cancelled by the {@link BookingService} into the
+ * {@link TicketManager}, whose observable list may only be changed on the FX thread.
+ * Admissions replayed from the journal follow the restored tickets through the same queue.
+ *
+ * <p>All calls go through one {@link FxSerialExecutor}. Calls already on the FX thread
+ * are applied right away, so the UI sees its own bookings immediately, but never before
+ * calls from other threads that are still queued: a cancellation on the FX thread cannot
+ * overtake the issue of the same ticket by a background booking.</p>
+ *
+ * @author Dieudonné
+ * @version 1.0
+ */
+public class FxBookingBridge implements BookingService.BookingListener {
+
+    private final FxSerialExecutor aFxThread = new FxSerialExecutor();
+
+    @Override
+    public void ticketsIssued(List<Ticket> pTickets) {
+        aFxThread.execute(() -> TicketManager.getInstance().addTickets(pTickets));
+    }
+
+    @Override
+    public void ticketCancelled(Ticket pTicket) {
+        aFxThread.execute(() -> TicketManager.getInstance().removeTicket(pTicket));
+    }
+
+    @Override
+    public void ticketsRedeemed(Set<String> pTicketIDs) {
+        aFxThread.execute(() -> TicketManager.getInstance().restoreRedeemed(pTicketIDs));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.integration_project.Helpers;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import com.example.integration_project.Model.CatalogStore;
+
+import javafx.collections.ObservableList;
+
+/**
+ * <h1>FxCatalogAdapter</h1>
+ * Mirrors a {@link CatalogStore} into an observable list that {@code ListView}s and
+ * choice boxes can show, changing that list only on the FX thread.
+ *
+ * <p>Changes go through one {@link FxSerialExecutor} in the order the store published
+ * them. Changes made on the FX thread are applied right away, so the UI sees its own
+ * edits immediately, but never before changes of background loaders that are still
+ * queued. Each change of the store, however many entries it holds, reaches the list as
+ * one change event. Additions and removals are applied as such, which keeps the
+ * selection of the list views; a replaced catalog replaces the list contents.</p>
+ *
+ * @param <T> the type of the catalog entries
+ * @author Dieudonné
+ * @version 1.0
+ */
+public class FxCatalogAdapter<T> implements CatalogStore.CatalogListener<T> {
+
+    private final ObservableList<T> aView;
+    private final FxSerialExecutor aFxThread = new FxSerialExecutor();
+
+    private FxCatalogAdapter(ObservableList<T> pView) {
+        aView = pView;
+    }
+
+    /**
+     * Fills a list with the current catalog and keeps it in step with later changes.
+     *
+     * @param pStore the catalog to mirror
+     * @param pView  the list to keep, which should not be changed by anything else
+     * @param <T>    the type of the catalog entries
+     * @return the adapter, which can be passed to {@link CatalogStore#removeListener} to unbind it
+     * @throws IllegalArgumentException if pStore or pView is null
+     */
+    public static <T> FxCatalogAdapter<T> bind(CatalogStore<T> pStore, ObservableList<T> pView) {
+        if (pStore == null || pView == null) {
+            throw new IllegalArgumentException("Store and view cannot be null");
+        }
+        FxCatalogAdapter<T> adapter = new FxCatalogAdapter<>(pView);
+        // Holding the store, no change can slip in between the first copy and the listener
+        synchronized (pStore) {
+            List<T> snapshot = pStore.snapshot();
+            adapter.aFxThread.execute(() -> pView.setAll(snapshot));
+            pStore.addListener(adapter);
+        }
+        return adapter;
+    }
+
+    @Override
+    public void catalogChanged(List<T> pRemoved, List<T> pAdded, List<T> pSnapshot) {
+        // Called while the writer holds the store, so changes are queued in store order
+        aFxThread.execute(() -> apply(pRemoved, pAdded, pSnapshot));
+    }
+
+    private void apply(List<T> pRemoved, List<T> pAdded, List<T> pSnapshot) {
+        if (pRemoved.isEmpty()) {
+            // Entries are only ever appended
+            aView.addAll(pAdded);
+        } else if (pAdded.isEmpty()) {
+            Set<T> leaving = Collections.newSetFromMap(new IdentityHashMap<>());
+            leaving.addAll(pRemoved);
+            aView.removeAll(leaving);
+        } else {
+            aView.setAll(pSnapshot);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.integration_project.Helpers;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+import javafx.application.Platform;
+
+/**
+ * <h1>FxSerialExecutor</h1>
+ * Runs actions on the FX thread, strictly in the order they were submitted.
+ *
+ * <p>An action submitted on the FX thread runs right away, so the UI sees its own
+ * changes immediately, but only after the actions that other threads submitted before
+ * it: those run first instead of waiting for their {@link Platform#runLater(Runnable)}.
+ * So no action ever overtakes an earlier one, e.g. a removal the add it undoes.</p>
+ *
+ * @author Dieudonné
+ * @version 1.0
+ */
+public class FxSerialExecutor implements Executor {
+
+    private final ConcurrentLinkedQueue<Runnable> aPending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Queues an action and runs the queue on the FX thread.
+     *
+     * @param pAction the action to run
+     * @throws IllegalArgumentException if pAction is null
+     */
+    @Override
+    public void execute(Runnable pAction) {
+        if (pAction == null) {
+            throw new IllegalArgumentException("Action cannot be null");
+        }
+        aPending.add(pAction);
+        if (Platform.isFxApplicationThread()) {
+            drain();
+        } else {
+            Platform.runLater(this::drain);
+        }
+    }
+
+    /**
+     * Runs the queued actions in order. Only ever called on the FX thread; a drain that
+     * finds the queue empty had its actions run by an earlier one.
+     */
+    private void drain() {
+        Runnable action;
+        while ((action = aPending.poll()) != null) {
+            action.run();
+        }
+    }
+}
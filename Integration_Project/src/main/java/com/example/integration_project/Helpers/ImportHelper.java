@@ -2,6 +2,7 @@ package com.example.integration_project.Helpers;
 
 import com.example.integration_project.Model.*;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -47,7 +48,7 @@ public class ImportHelper {
      */
     public static void loadTickets() {
         TicketManager  ticketManagerInstance = TicketManager.getInstance();
-        List<Showtime> Showtime = ShowtimeManager.getShowtime();
+        List<Showtime> Showtime = ShowtimeManager.getCatalog().snapshot();
 
         // Adds tickets for existing showtimes
         if (Showtime.size() >= 6) {
@@ -68,9 +69,10 @@ public class ImportHelper {
     public static void loadMovies() {
         MovieManager  movieManagerInstance = MovieManager.getMovieManagerInstance();
 
-        movieManagerInstance.addMovie(new Movie("SpiderMan"));
-        movieManagerInstance.addMovie(new Movie("The Matrix"));
-        movieManagerInstance.addMovie(new Movie("Barbie"));
+        movieManagerInstance.addMovies(List.of(
+                new Movie("SpiderMan", Duration.ofMinutes(121)),
+                new Movie("The Matrix", Duration.ofMinutes(136)),
+                new Movie("Barbie", Duration.ofMinutes(114))));
     }
 
     /**
@@ -80,11 +82,12 @@ public class ImportHelper {
     public static void loadShowroom() {
         ShowroomManager  rooms = ShowroomManager.getShowroomManagerInstance();
 
-        rooms.addShowroom(new Showroom(101, 15));
-        rooms.addShowroom(new Showroom(102, 19));
-        rooms.addShowroom(new Showroom(103, 20));
-        rooms.addShowroom(new Showroom(104, 21));
-        rooms.addShowroom(new Showroom(105, 22));
+        rooms.addShowrooms(List.of(
+                new Showroom(101, 15),
+                new Showroom(102, 19),
+                new Showroom(103, 20),
+                new Showroom(104, 21),
+                new Showroom(105, 22)));
     }
 
     /**
@@ -97,19 +100,19 @@ public class ImportHelper {
      */
     public static void loadShowtime() {
         ShowtimeManager showtime = ShowtimeManager.getShowtimeManagerInstance();
-        List<Movie> movies = MovieManager.getMovies();
-        List<Showroom> rooms = ShowroomManager.getShowroom();
+        MovieManager movies = MovieManager.getMovieManagerInstance();
+        ShowroomManager rooms = ShowroomManager.getShowroomManagerInstance();
 
         // Lookup helpers (Note: assumes managers are populated)
-        Movie spiderman = findMovie(movies, "SpiderMan");
-        Movie matrix = findMovie(movies, "The Matrix");
-        Movie barbie = findMovie(movies, "Barbie");
+        Movie spiderman = movies.findByName("SpiderMan");
+        Movie matrix = movies.findByName("The Matrix");
+        Movie barbie = movies.findByName("Barbie");
 
-        Showroom r101 = findRoom(rooms, 101);
-        Showroom r102 = findRoom(rooms, 102);
-        Showroom r103 = findRoom(rooms, 103);
-        Showroom r104 = findRoom(rooms, 104);
-        Showroom r105 = findRoom(rooms, 105);
+        Showroom r101 = rooms.findByNumber(101);
+        Showroom r102 = rooms.findByNumber(102);
+        Showroom r103 = rooms.findByNumber(103);
+        Showroom r104 = rooms.findByNumber(104);
+        Showroom r105 = rooms.findByNumber(105);
 
         // Formatters for parsing date and 12-hour time strings
         DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
@@ -129,51 +132,23 @@ public class ImportHelper {
             return LocalDateTime.of(d, t);
         };
 
+        // Built up front and added as one batch, so the list views refresh once
+        List<Showtime> schedule = new ArrayList<>();
+
         // Spider-Man Showtime
-        showtime.addShowtime(new Showtime(spiderman, buildDateTime.apply("12/20/2025", "10:30 AM"), r101));
-        showtime.addShowtime(new Showtime(spiderman, buildDateTime.apply("12/21/2025", "12:30 AM"), r101));
-        showtime.addShowtime(new Showtime(spiderman, buildDateTime.apply("12/22/2025", "12:30 PM"), r101));
-        showtime.addShowtime(new Showtime(spiderman, buildDateTime.apply("12/23/2025", "1:30 PM"), r101));
+        schedule.add(new Showtime(spiderman, buildDateTime.apply("12/20/2025", "10:30 AM"), r101));
+        schedule.add(new Showtime(spiderman, buildDateTime.apply("12/21/2025", "12:30 AM"), r101));
+        schedule.add(new Showtime(spiderman, buildDateTime.apply("12/22/2025", "12:30 PM"), r101));
+        schedule.add(new Showtime(spiderman, buildDateTime.apply("12/23/2025", "1:30 PM"), r101));
 
         // Matrix Showtime
-        showtime.addShowtime(new Showtime(matrix, buildDateTime.apply("12/24/2025", "10:30 AM"), r102));
-        showtime.addShowtime(new Showtime(matrix, buildDateTime.apply("12/24/2025", "12:30 AM"), r103));
-        showtime.addShowtime(new Showtime(matrix, buildDateTime.apply("12/24/2025", "12:30 PM"), r104));
+        schedule.add(new Showtime(matrix, buildDateTime.apply("12/24/2025", "10:30 AM"), r102));
+        schedule.add(new Showtime(matrix, buildDateTime.apply("12/24/2025", "12:30 AM"), r103));
+        schedule.add(new Showtime(matrix, buildDateTime.apply("12/24/2025", "12:30 PM"), r104));
 
         // Barbie showtime
-        showtime.addShowtime(new Showtime(barbie, buildDateTime.apply("12/25/2025", "1:30 PM"), r105));
-    }
+        schedule.add(new Showtime(barbie, buildDateTime.apply("12/25/2025", "1:30 PM"), r105));
 
-    /**
-     * Searches a list of {@link Movie} objects for a movie with the matching name.
-     *
-     * @param list The list of movies to search through.
-     * @param name The name of the movie to find (case-sensitive).
-     * @return The matching {@link Movie} object, or {@code null} if not found.
-     */
-    private static Movie findMovie(List<Movie> list, String name) {
-
-        for (Movie movie : list) {
-            if (movie.getName().equals(name)) {
-                return movie;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Searches a list of {@link Showroom} objects for a room with the matching number.
-     *
-     * @param list The list of showrooms to search through.
-     * @param number The room number to find.
-     * @return The matching {@link Showroom} object, or {@code null} if not found.
-     */
-    private static Showroom findRoom(List<Showroom> list, int number) {
-        for (Showroom room : list) {
-            if (room.getRoomNumber() == number) {
-                return room;
-            }
-        }
-        return null;
+        showtime.addShowtimes(schedule);
     }
 }
\ No newline at end of file
@@ -0,0 +1,420 @@
+package com.example.integration_project.Model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * <h1>BookingJournal</h1>
+ * An append-only, write-ahead journal of issued, cancelled and redeemed tickets.
+ *
+ * <p>Every record is written in a compact binary format through a {@link FileChannel}:
+ * {@code [int length][byte type][payload][int crc32c]}. Showtimes are identified by
+ * their room number and start time, so the journal stays valid across restarts. The
+ * tickets of one booking share a single record, so a booking is either durable as a
+ * whole or not at all.
+ * A torn record at the end of the file (a crash in the middle of a write) is cut off
+ * when the journal is opened. A batch whose write or fsync fails is cut off right away,
+ * so later records are never appended behind a torn one; if even that fails, the
+ * journal refuses every further record.</p>
+ *
+ * <p>Appends use group commit: callers hand their record to a single writer thread and
+ * wait on a future. The writer collects everything that arrives within the configured
+ * commit delay, writes it in one go and makes it durable with a single
+ * {@link FileChannel#force(boolean)}, so many concurrent bookings share one fsync.</p>
+ *
+ * @author Dieudonné
+ * @version 1.0
+ * @see BookingService
+ */
+public class BookingJournal implements AutoCloseable {
+
+    /** Record type of an issued ticket. */
+    public static final byte ISSUED = 1;
+
+    /** Record type of a cancelled ticket. */
+    public static final byte CANCELLED = 2;
+
+    /** Record type of a ticket admitted at the entrance. */
+    public static final byte REDEEMED = 3;
+
+    private static final int MAGIC = 0x544B4A31; // "TKJ1"
+    private static final int HEADER_BYTES = 4;
+    private static final int MAX_BATCH = 4096;
+
+    /**
+     * A decoded journal record. Fields that do not apply to the record type are 0 or null.
+     *
+     * @param type          {@link #ISSUED}, {@link #CANCELLED} or {@link #REDEEMED}
+     * @param ticketID      the ticket identifier
+     * @param roomNumber    the room number of the showtime
+     * @param showtimeStart the start of the showtime
+     * @param seat          the seat index in the showtime's seat map
+     * @param purchased     the purchase date and time
+     */
+    public record Record(byte type, String ticketID, int roomNumber, LocalDateTime showtimeStart,
+                         int seat, LocalDateTime purchased) {
+    }
+
+    /**
+     * An encoded record waiting for the writer thread.
+     */
+    private record Pending(byte[] bytes, CompletableFuture<Void> done) {
+    }
+
+    /** Marker that tells the writer thread to stop after committing what came before it. */
+    private static final Pending CLOSE = new Pending(new byte[0], null);
+
+    private final Path aPath;
+    private final FileChannel aChannel;
+    private final long aCommitDelayNanos;
+    private final LinkedBlockingQueue<Pending> aQueue = new LinkedBlockingQueue<>();
+    private final Thread aWriter;
+    private volatile boolean aOpen = true;
+    private volatile IOException aFailure;
+    private ByteBuffer aBuffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    /**
+     * Opens (or creates) a journal file and starts its writer thread.
+     *
+     * @param pPath        the journal file
+     * @param pCommitDelay how long the writer may wait for more records before each fsync;
+     *                     {@link Duration#ZERO} commits whatever is queued right away
+     * @throws IOException if the file cannot be opened or is not a journal
+     * @throws IllegalArgumentException if an argument is null or the delay is negative
+     */
+    public BookingJournal(Path pPath, Duration pCommitDelay) throws IOException {
+        this(pPath, pCommitDelay, open(pPath, pCommitDelay));
+    }
+
+    /**
+     * Starts a journal on a channel that is already open, e.g. one that injects faults.
+     *
+     * @param pPath        the journal file, used in messages
+     * @param pCommitDelay how long the writer may wait for more records before each fsync
+     * @param pChannel     the channel of the journal file, closed by the journal
+     * @throws IOException if the file is not a journal
+     */
+    BookingJournal(Path pPath, Duration pCommitDelay, FileChannel pChannel) throws IOException {
+        aPath = pPath;
+        aCommitDelayNanos = pCommitDelay.toNanos();
+        aChannel = pChannel;
+        try {
+            if (aChannel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).flip();
+                aChannel.write(header, 0);
+                aChannel.force(true);
+            }
+            long end = scan(null);
+            aChannel.truncate(end);
+            aChannel.position(end);
+        } catch (IOException | RuntimeException e) {
+            aChannel.close();
+            throw e;
+        }
+        aWriter = new Thread(this::writeLoop, "booking-journal");
+        aWriter.setDaemon(true);
+        aWriter.start();
+    }
+
+    private static FileChannel open(Path pPath, Duration pCommitDelay) throws IOException {
+        if (pPath == null || pCommitDelay == null || pCommitDelay.isNegative()) {
+            throw new IllegalArgumentException("Journal path and a non-negative commit delay are required");
+        }
+        return FileChannel.open(pPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Gets the journal file.
+     *
+     * @return the path of the journal
+     */
+    public Path getPath() {
+        return aPath;
+    }
+
+    /**
+     * Reads every valid record from the start of the journal.
+     *
+     * @param pHandler receives the records in the order they were written; a booking is
+     *                 handed over as one {@link #ISSUED} record per ticket
+     * @throws IOException if the file cannot be read
+     */
+    public void replay(Consumer<Record> pHandler) throws IOException {
+        scan(pHandler);
+    }
+
+    /**
+     * Appends the tickets of one booking as a single record, so a failed write can never
+     * leave part of the booking durable. The returned future completes once the record is
+     * durable on disk.
+     *
+     * @param pShowtime the showtime the tickets were issued for
+     * @param pTickets  the issued tickets
+     * @param pSeats    the seat index of each ticket, in the same order
+     * @return a future completed after the fsync that covers the record
+     */
+    public CompletableFuture<Void> appendIssued(Showtime pShowtime, List<Ticket> pTickets, int[] pSeats) {
+        byte[][] ids = new byte[pTickets.size()][];
+        int size = 8 + 4 + 2;
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = pTickets.get(i).getaTicketID().getBytes(StandardCharsets.UTF_8);
+            size += 4 + 8 + 2 + ids[i].length;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(size)
+                .putLong(pShowtime.getShowtime().toEpochSecond(ZoneOffset.UTC))
+                .putInt(pShowtime.getShowroom().getRoomNumber())
+                .putShort((short) ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            payload.putInt(pSeats[i])
+                    .putLong(pTickets.get(i).getaPurchaseDateTime().toEpochSecond(ZoneOffset.UTC))
+                    .putShort((short) ids[i].length)
+                    .put(ids[i]);
+        }
+        return append(ISSUED, payload.array());
+    }
+
+    /**
+     * Appends the record of a cancelled ticket.
+     *
+     * @param pTicketID the identifier of the cancelled ticket
+     * @return a future completed after the fsync that covers the record
+     */
+    public CompletableFuture<Void> appendCancelled(String pTicketID) {
+        return append(CANCELLED, encodeID(pTicketID));
+    }
+
+    /**
+     * Appends the record of a ticket admitted at the entrance.
+     *
+     * @param pTicketID the identifier of the redeemed ticket
+     * @return a future completed after the fsync that covers the record
+     */
+    public CompletableFuture<Void> appendRedeemed(String pTicketID) {
+        return append(REDEEMED, encodeID(pTicketID));
+    }
+
+    private static byte[] encodeID(String pTicketID) {
+        byte[] id = pTicketID.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(2 + id.length).putShort((short) id.length).put(id).array();
+    }
+
+    /**
+     * Stops accepting records, commits what is already queued and closes the file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        aOpen = false;
+        aQueue.add(CLOSE);
+        try {
+            aWriter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        aChannel.close();
+    }
+
+    private CompletableFuture<Void> append(byte pType, byte[] pPayload) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (!aOpen) {
+            done.completeExceptionally(new IllegalStateException("Journal is closed"));
+            return done;
+        }
+        if (aFailure != null) {
+            done.completeExceptionally(new IllegalStateException("Journal failed", aFailure));
+            return done;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(pType);
+        crc.update(pPayload);
+        ByteBuffer record = ByteBuffer.allocate(4 + 1 + pPayload.length + 4)
+                .putInt(1 + pPayload.length)
+                .put(pType)
+                .put(pPayload)
+                .putInt((int) crc.getValue());
+        aQueue.add(new Pending(record.array(), done));
+        return done;
+    }
+
+    /**
+     * Writer thread: takes the first waiting record, gathers more within the commit
+     * delay, then writes and forces the whole batch at once.
+     */
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>();
+        boolean closing = false;
+        while (!closing) {
+            try {
+                batch.add(aQueue.take());
+                long deadline = System.nanoTime() + aCommitDelayNanos;
+                aQueue.drainTo(batch, MAX_BATCH - batch.size());
+                while (batch.size() < MAX_BATCH && !batch.contains(CLOSE)) {
+                    long wait = deadline - System.nanoTime();
+                    if (wait <= 0) {
+                        break;
+                    }
+                    Pending next = aQueue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    aQueue.drainTo(batch, MAX_BATCH - batch.size());
+                }
+            } catch (InterruptedException e) {
+                closing = true;
+            }
+            closing |= batch.removeIf(p -> p == CLOSE);
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+        // Records that raced with close() are refused rather than left waiting forever
+        Pending late;
+        while ((late = aQueue.poll()) != null) {
+            if (late != CLOSE) {
+                late.done().completeExceptionally(new IllegalStateException("Journal is closed"));
+            }
+        }
+    }
+
+    private void commit(List<Pending> pBatch) {
+        if (aFailure != null) {
+            for (Pending p : pBatch) {
+                p.done().completeExceptionally(new IllegalStateException("Journal failed", aFailure));
+            }
+            return;
+        }
+        long start = -1;
+        try {
+            start = aChannel.position();
+            int size = 0;
+            for (Pending p : pBatch) {
+                size += p.bytes().length;
+            }
+            if (aBuffer.capacity() < size) {
+                aBuffer = ByteBuffer.allocateDirect(Integer.highestOneBit(size) << 1);
+            }
+            aBuffer.clear();
+            for (Pending p : pBatch) {
+                aBuffer.put(p.bytes());
+            }
+            aBuffer.flip();
+            while (aBuffer.hasRemaining()) {
+                aChannel.write(aBuffer);
+            }
+            aChannel.force(false);
+            for (Pending p : pBatch) {
+                p.done().complete(null);
+            }
+        } catch (IOException e) {
+            rollBack(start, e);
+            for (Pending p : pBatch) {
+                p.done().completeExceptionally(new UncheckedIOException(e));
+            }
+        }
+    }
+
+    /**
+     * Cuts off whatever part of a failed batch reached the file, so the next batch starts
+     * right after the last acknowledged record. If the file cannot be cut, the journal is
+     * marked failed: anything appended behind the torn record would be lost on reopen.
+     *
+     * @param pStart the offset the batch was written at, or -1 if it is unknown
+     * @param pCause why the batch failed
+     */
+    private void rollBack(long pStart, IOException pCause) {
+        if (pStart >= 0) {
+            try {
+                aChannel.truncate(pStart);
+                aChannel.position(pStart);
+                aChannel.force(true);
+                return;
+            } catch (IOException e) {
+                pCause.addSuppressed(e);
+            }
+        }
+        aFailure = pCause;
+    }
+
+    /**
+     * Walks the records from the start of the file.
+     *
+     * @param pHandler receives each valid record, may be null
+     * @return the file offset just after the last valid record
+     */
+    private long scan(Consumer<Record> pHandler) throws IOException {
+        long size = aChannel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        aChannel.read(header, 0);
+        if (header.flip().remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+            throw new IOException(aPath + " is not a booking journal");
+        }
+        long position = HEADER_BYTES;
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        CRC32C crc = new CRC32C();
+        while (position + 4 <= size) {
+            lengthBuffer.clear();
+            aChannel.read(lengthBuffer, position);
+            int length = lengthBuffer.flip().getInt();
+            if (length <= 0 || position + 4 + length + 4 > size) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length + 4);
+            while (body.hasRemaining()) {
+                if (aChannel.read(body, position + 4 + body.position()) < 0) {
+                    break;
+                }
+            }
+            body.flip();
+            crc.reset();
+            crc.update(body.array(), 0, length);
+            if ((int) crc.getValue() != body.getInt(length)) {
+                break;
+            }
+            if (pHandler != null) {
+                decode(body, pHandler);
+            }
+            position += 4 + length + 4;
+        }
+        return position;
+    }
+
+    private static void decode(ByteBuffer pBody, Consumer<Record> pHandler) {
+        byte type = pBody.get();
+        if (type != ISSUED) {
+            pHandler.accept(new Record(type, readString(pBody), 0, null, 0, null));
+            return;
+        }
+        LocalDateTime start = LocalDateTime.ofEpochSecond(pBody.getLong(), 0, ZoneOffset.UTC);
+        int room = pBody.getInt();
+        int count = pBody.getShort() & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            int seat = pBody.getInt();
+            LocalDateTime purchased = LocalDateTime.ofEpochSecond(pBody.getLong(), 0, ZoneOffset.UTC);
+            pHandler.accept(new Record(type, readString(pBody), room, start, seat, purchased));
+        }
+    }
+
+    private static String readString(ByteBuffer pBody) {
+        byte[] bytes = new byte[pBody.getShort() & 0xFFFF];
+        pBody.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,521 @@
+package com.example.integration_project.Model;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * <h1>BookingService</h1>
+ * The BookingService class implements the **Singleton pattern**
+ * and holds the browse, book and cancel logic of the theater.
+ *
+ * <p>The service has no JavaFX dependency and is thread-safe: seats are booked through
+ * the lock-free {@link Showroom} seat maps and the issued tickets are kept in concurrent
+ * maps. There is no theater-wide lock: the few steps that must not interleave for one
+ * show (reporting issued tickets and cancelling them) take that show's lock from a
+ * {@link StripedLock}, so bookings for different shows never wait on each other. It can
+ * be called from any number of virtual threads, e.g. web or kiosk requests, as well as
+ * from the FX thread.</p>
+ *
+ * <p>Issued and cancelled tickets are reported to {@link BookingListener}s. The UI
+ * registers a listener that moves them into the {@link TicketManager} on the FX thread.</p>
+ *
+ * <p>When a {@link BookingJournal} is set, every issued and cancelled ticket is made
+ * durable before the call returns, and {@link #recover(BookingJournal)} rebuilds the
+ * bookings from the journal after a restart, together with the admissions that the
+ * {@link TicketManager} journals at the entrance.</p>
+ *
+ * <p>Clients that may retry a request pass an idempotency key. The result of the first
+ * request with a key is remembered in an {@link IdempotencyCache}, so a retry returns
+ * the original tickets instead of booking more seats.</p>
+ *
+ * @author Dieudonné
+ * @version 1.0
+ * @see SeatHoldManager
+ */
+public class BookingService {
+
+    /**
+     * Receives the tickets issued and cancelled by the service.
+     * Listeners are called on the thread that booked or cancelled.
+     */
+    public interface BookingListener {
+        /**
+         * Called after tickets were issued.
+         *
+         * @param pTickets the tickets of one booking
+         */
+        void ticketsIssued(List<Ticket> pTickets);
+
+        /**
+         * Called after a ticket was cancelled and its seat given back.
+         *
+         * @param pTicket the cancelled ticket
+         */
+        void ticketCancelled(Ticket pTicket);
+
+        /**
+         * Called by {@link #recover(BookingJournal)} with the tickets that had been
+         * admitted at the entrance, after the restored tickets were reported.
+         *
+         * @param pTicketIDs the identifiers of the redeemed tickets
+         */
+        default void ticketsRedeemed(Set<String> pTicketIDs) {
+        }
+    }
+
+    /**
+     * A ticket together with the seat it occupies.
+     */
+    private record Booking(Ticket ticket, Showtime showtime, Showroom showroom, int seat) {
+    }
+
+    /** The most booking results remembered for retried requests. */
+    public static final int MAX_REMEMBERED_REQUESTS = 100_000;
+
+    /** How long the result of a request is remembered for retries. */
+    public static final Duration REQUEST_TIME_TO_LIVE = Duration.ofMinutes(15);
+
+    /** Number of per-show locks; enough that shows on different cores rarely share one. */
+    private static final int LOCK_STRIPES = Math.max(64, Runtime.getRuntime().availableProcessors() * 8);
+
+    private static BookingService aInstance;
+
+    private final SeatHoldManager aHolds;
+    private final ConcurrentHashMap<String, Booking> aBookings = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<BookingListener> aListeners = new CopyOnWriteArrayList<>();
+    private volatile Supplier<? extends Collection<Showtime>> aCatalog = List::of;
+    private volatile Function<Movie, ? extends Collection<Showtime>> aShowtimesOf = this::scanShowtimes;
+    private volatile BookingJournal aJournal;
+    private final StripedLock aShowLocks = new StripedLock(LOCK_STRIPES);
+    private final IdempotencyCache<List<Ticket>> aRequests =
+            new IdempotencyCache<>(MAX_REMEMBERED_REQUESTS, REQUEST_TIME_TO_LIVE);
+
+    /**
+     * Private constructor to enforce the Singleton pattern.
+     */
+    private BookingService() {
+        aHolds = SeatHoldManager.getInstance();
+    }
+
+    /**
+     * Returns the single instance of the BookingService class.
+     *
+     * @return The sole instance of the BookingService.
+     */
+    public static synchronized BookingService getInstance() {
+        if (aInstance == null) {
+            aInstance = new BookingService();
+        }
+        return aInstance;
+    }
+
+    /**
+     * Sets where the service reads the bookable showtimes from.
+     *
+     * @param pCatalog supplies the current showtimes; must be safe to call from any booking thread
+     * @throws IllegalArgumentException if pCatalog is null
+     */
+    public void setCatalog(Supplier<? extends Collection<Showtime>> pCatalog) {
+        if (pCatalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        aCatalog = pCatalog;
+        aShowtimesOf = this::scanShowtimes;
+    }
+
+    /**
+     * Sets where the service reads the bookable showtimes from, together with an index
+     * that lists the showtimes of one movie without scanning the whole catalog.
+     *
+     * @param pCatalog     supplies the current showtimes; must be safe to call from any booking thread
+     * @param pShowtimesOf gives the showtimes of a movie, in the order to browse them
+     * @throws IllegalArgumentException if pCatalog or pShowtimesOf is null
+     */
+    public void setCatalog(Supplier<? extends Collection<Showtime>> pCatalog,
+                           Function<Movie, ? extends Collection<Showtime>> pShowtimesOf) {
+        if (pShowtimesOf == null) {
+            throw new IllegalArgumentException("Showtime index cannot be null");
+        }
+        setCatalog(pCatalog);
+        aShowtimesOf = pShowtimesOf;
+    }
+
+    /**
+     * Sets the journal that issued and cancelled tickets are written to.
+     *
+     * @param pJournal the journal, or null to stop journaling
+     */
+    public void setJournal(BookingJournal pJournal) {
+        aJournal = pJournal;
+    }
+
+    /**
+     * Rebuilds the bookings recorded in a journal: the seats are booked again in the
+     * showroom seat maps and the tickets are reported to the listeners in one batch.
+     * Showtimes are matched by room number and start time against the catalog, so the
+     * catalog must be set first. Records of showtimes that no longer exist are skipped.
+     * Tickets admitted at the entrance and not cancelled since are then reported as redeemed.
+     *
+     * @param pJournal the journal to replay
+     * @return the number of tickets restored
+     * @throws IOException if the journal cannot be read
+     * @throws IllegalArgumentException if pJournal is null
+     */
+    public int recover(BookingJournal pJournal) throws IOException {
+        return recover(pJournal, null);
+    }
+
+    /**
+     * Rebuilds the bookings recorded in a journal, except those of showtimes whose tickets
+     * were moved to a {@link TicketArchive}: the archive already holds them.
+     *
+     * @param pJournal the journal to replay
+     * @param pArchive the archive of past tickets, or null
+     * @return the number of tickets restored
+     * @throws IOException if the journal cannot be read
+     * @throws IllegalArgumentException if pJournal is null
+     */
+    public int recover(BookingJournal pJournal, TicketArchive pArchive) throws IOException {
+        if (pJournal == null) {
+            throw new IllegalArgumentException("Journal cannot be null");
+        }
+        Map<String, BookingJournal.Record> live = new LinkedHashMap<>();
+        Set<String> redeemed = new LinkedHashSet<>();
+        pJournal.replay(record -> {
+            if (record.type() == BookingJournal.ISSUED) {
+                live.put(record.ticketID(), record);
+            } else if (record.type() == BookingJournal.REDEEMED) {
+                redeemed.add(record.ticketID());
+            } else {
+                live.remove(record.ticketID());
+                redeemed.remove(record.ticketID());
+            }
+        });
+        Map<String, Showtime> showtimes = new LinkedHashMap<>();
+        for (Showtime st : aCatalog.get()) {
+            showtimes.put(showtimeKey(st.getShowroom().getRoomNumber(), st.getShowtime()), st);
+        }
+        List<Ticket> restored = new ArrayList<>();
+        for (BookingJournal.Record record : live.values()) {
+            Showtime st = showtimes.get(showtimeKey(record.roomNumber(), record.showtimeStart()));
+            if (st == null || aBookings.containsKey(record.ticketID())
+                    || pArchive != null && pArchive.isArchived(st)) {
+                continue;
+            }
+            Showroom room = st.getShowroom();
+            SeatMap map = room.getSeatMap(st);
+            if (record.seat() >= map.getCapacity() || !map.book(record.seat())) {
+                continue;
+            }
+            long number = TicketIdGenerator.parse(record.ticketID());
+            Ticket ticket = number > 0
+                    ? new Ticket(number, st, map.labelOf(record.seat()), record.purchased())
+                    : new Ticket(record.ticketID(), st, map.labelOf(record.seat()), record.purchased());
+            aBookings.put(ticket.getaTicketID(), new Booking(ticket, st, room, record.seat()));
+            restored.add(ticket);
+        }
+        if (!restored.isEmpty()) {
+            List<Ticket> issued = List.copyOf(restored);
+            for (BookingListener listener : aListeners) {
+                listener.ticketsIssued(issued);
+            }
+        }
+        // Also covers tickets that were not booked here, e.g. imported ones
+        if (!redeemed.isEmpty()) {
+            Set<String> admitted = Collections.unmodifiableSet(redeemed);
+            for (BookingListener listener : aListeners) {
+                listener.ticketsRedeemed(admitted);
+            }
+        }
+        return restored.size();
+    }
+
+    /**
+     * Forgets the bookings of showtimes that started before a cutoff, once their tickets
+     * were archived. Their seats stay booked; they can no longer be cancelled.
+     *
+     * @param pCutoff bookings of showtimes starting before this time are dropped
+     * @return the number of bookings dropped
+     * @throws IllegalArgumentException if pCutoff is null
+     */
+    public int retire(LocalDateTime pCutoff) {
+        if (pCutoff == null) {
+            throw new IllegalArgumentException("Cutoff cannot be null");
+        }
+        int retired = 0;
+        for (Iterator<Booking> bookings = aBookings.values().iterator(); bookings.hasNext(); ) {
+            if (bookings.next().showtime().getShowtime().isBefore(pCutoff)) {
+                bookings.remove();
+                retired++;
+            }
+        }
+        return retired;
+    }
+
+    /**
+     * Registers a listener for issued and cancelled tickets.
+     *
+     * @param pListener the listener to add
+     * @throws IllegalArgumentException if pListener is null
+     */
+    public void addListener(BookingListener pListener) {
+        if (pListener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        aListeners.add(pListener);
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param pListener the listener to remove
+     */
+    public void removeListener(BookingListener pListener) {
+        aListeners.remove(pListener);
+    }
+
+    /**
+     * Lists the showtimes of a movie.
+     *
+     * @param pMovie the movie to browse
+     * @return the showtimes of the movie, in the order of the catalog's index, or in
+     *         catalog order if it has none
+     * @throws IllegalArgumentException if pMovie is null
+     */
+    public List<Showtime> getShowtimes(Movie pMovie) {
+        if (pMovie == null) {
+            throw new IllegalArgumentException("Movie cannot be null");
+        }
+        return new ArrayList<>(aShowtimesOf.apply(pMovie));
+    }
+
+    private List<Showtime> scanShowtimes(Movie pMovie) {
+        List<Showtime> result = new ArrayList<>();
+        for (Showtime st : aCatalog.get()) {
+            if (st.getMovie() == pMovie) {
+                result.add(st);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of seats still available for a showtime.
+     *
+     * @param pShowtime the showtime to look up
+     * @return the number of remaining seats
+     * @throws IllegalArgumentException if pShowtime is null
+     */
+    public int getRemainingSeats(Showtime pShowtime) {
+        if (pShowtime == null) {
+            throw new IllegalArgumentException("Showtime cannot be null");
+        }
+        return pShowtime.getShowroom().getRemainingSeats(pShowtime);
+    }
+
+    /**
+     * Books a number of seats right away and issues one ticket per seat.
+     *
+     * @param pShowtime the showtime to book
+     * @param pCount    the number of seats (must be greater than 0)
+     * @return the issued tickets
+     * @throws IllegalArgumentException if pShowtime is null or pCount is not greater than 0
+     * @throws IllegalStateException if not enough seats are left or the booking could not be journaled
+     */
+    public List<Ticket> book(Showtime pShowtime, int pCount) {
+        if (pShowtime == null) {
+            throw new IllegalArgumentException("Showtime cannot be null");
+        }
+        Showroom room = pShowtime.getShowroom();
+        int[] seats = room.bookSeats(pShowtime, pCount);
+        return publish(SeatHoldManager.createTickets(pShowtime, room, seats), pShowtime, room, seats);
+    }
+
+    /**
+     * Books a number of seats once per idempotency key. A retry with the same key
+     * returns the tickets of the first request without booking again.
+     *
+     * @param pRequestID the client-supplied idempotency key
+     * @param pShowtime  the showtime to book
+     * @param pCount     the number of seats (must be greater than 0)
+     * @return the tickets issued for the request
+     * @throws IllegalArgumentException if pRequestID is blank, pShowtime is null or pCount is not greater than 0
+     * @throws IllegalStateException if not enough seats are left or the booking could not be journaled
+     */
+    public List<Ticket> book(String pRequestID, Showtime pShowtime, int pCount) {
+        return aRequests.execute(pRequestID, () -> book(pShowtime, pCount));
+    }
+
+    /**
+     * Holds a number of seats while the customer completes the payment.
+     *
+     * @param pShowtime   the showtime to hold seats for
+     * @param pCount      the number of seats (must be greater than 0)
+     * @param pTimeToLive how long the seats stay held
+     * @return the hold
+     * @throws IllegalArgumentException if an argument is invalid
+     * @throws IllegalStateException if not enough seats are left
+     * @see SeatHoldManager#hold(Showtime, int, Duration)
+     */
+    public SeatHold hold(Showtime pShowtime, int pCount, Duration pTimeToLive) {
+        return aHolds.hold(pShowtime, pCount, pTimeToLive);
+    }
+
+    /**
+     * Turns a hold into tickets and reports them to the listeners.
+     *
+     * @param pHold the hold to confirm
+     * @return the issued tickets
+     * @throws IllegalArgumentException if pHold is null
+     * @throws IllegalStateException if the hold is no longer active or the booking could not be journaled
+     */
+    public List<Ticket> confirm(SeatHold pHold) {
+        List<Ticket> tickets = aHolds.confirm(pHold);
+        return publish(tickets, pHold.getShowtime(), pHold.getShowroom(), pHold.seats());
+    }
+
+    /**
+     * Turns a hold into tickets once per idempotency key. When the key was already
+     * used, the tickets of that request are returned and the given hold is released,
+     * so a retried request never ends up with two sets of seats.
+     *
+     * @param pRequestID the client-supplied idempotency key
+     * @param pHold      the hold to confirm
+     * @return the tickets issued for the request
+     * @throws IllegalArgumentException if pRequestID is blank or pHold is null
+     * @throws IllegalStateException if the hold is no longer active or the booking could not be journaled
+     */
+    public List<Ticket> confirm(String pRequestID, SeatHold pHold) {
+        if (pHold == null) {
+            throw new IllegalArgumentException("Hold cannot be null");
+        }
+        List<Ticket> tickets = aRequests.execute(pRequestID, () -> confirm(pHold));
+        if (pHold.getStatus() == SeatHold.Status.HELD) {
+            aHolds.release(pHold);
+        }
+        return tickets;
+    }
+
+    /**
+     * Gets the tickets already issued for an idempotency key.
+     *
+     * @param pRequestID the idempotency key
+     * @return the tickets, or null if no completed request with this key is remembered
+     */
+    public List<Ticket> getIssued(String pRequestID) {
+        return aRequests.getIfPresent(pRequestID);
+    }
+
+    /**
+     * Gives the seats of a hold back without issuing tickets.
+     *
+     * @param pHold the hold to release
+     * @return true if the hold was active and is now released
+     * @throws IllegalArgumentException if pHold is null
+     */
+    public boolean release(SeatHold pHold) {
+        return aHolds.release(pHold);
+    }
+
+    /**
+     * Cancels a ticket issued by this service and gives its seat back.
+     *
+     * @param pTicketID the identifier of the ticket
+     * @return true if the ticket was cancelled, false if it is unknown or already cancelled
+     * @throws IllegalStateException if the cancellation could not be written to the journal
+     */
+    public boolean cancel(String pTicketID) {
+        if (pTicketID == null) {
+            return false;
+        }
+        Booking booking = aBookings.get(pTicketID);
+        if (booking == null) {
+            return false;
+        }
+        ReentrantLock lock = aShowLocks.lockFor(booking.showroom(), booking.showtime());
+        lock.lock();
+        try {
+            if (!aBookings.remove(pTicketID, booking)) {
+                return false;
+            }
+        } finally {
+            lock.unlock();
+        }
+        // The fsync happens outside the show's lock, so other bookings of the show never
+        // wait on the disk; the seat stays taken until the cancellation is durable
+        BookingJournal journal = aJournal;
+        if (journal != null) {
+            try {
+                journal.appendCancelled(pTicketID).join();
+            } catch (CompletionException e) {
+                aBookings.put(pTicketID, booking);
+                throw new IllegalStateException("Cancellation could not be saved", e.getCause());
+            }
+        }
+        lock.lock();
+        try {
+            booking.showroom().releaseSeat(booking.showtime(), booking.seat());
+            for (BookingListener listener : aListeners) {
+                listener.ticketCancelled(booking.ticket());
+            }
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Journals issued tickets, records them so they can be cancelled and reports them
+     * to the listeners. If the journal write fails the seats are given back.
+     */
+    private List<Ticket> publish(List<Ticket> pTickets, Showtime pShowtime, Showroom pShowroom, int[] pSeats) {
+        BookingJournal journal = aJournal;
+        if (journal != null) {
+            try {
+                journal.appendIssued(pShowtime, pTickets, pSeats).join();
+            } catch (CompletionException e) {
+                for (int seat : pSeats) {
+                    pShowroom.releaseSeat(pShowtime, seat);
+                }
+                throw new IllegalStateException("Booking could not be saved", e.getCause());
+            }
+        }
+        List<Ticket> issued = List.copyOf(pTickets);
+        // Registering and reporting happen under the show's lock, so a cancellation of
+        // these tickets can never be reported before they were
+        ReentrantLock lock = aShowLocks.lockFor(pShowroom, pShowtime);
+        lock.lock();
+        try {
+            for (int i = 0; i < issued.size(); i++) {
+                Ticket ticket = issued.get(i);
+                aBookings.put(ticket.getaTicketID(), new Booking(ticket, pShowtime, pShowroom, pSeats[i]));
+            }
+            for (BookingListener listener : aListeners) {
+                listener.ticketsIssued(issued);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return issued;
+    }
+
+    private static String showtimeKey(int pRoomNumber, LocalDateTime pStart) {
+        return pRoomNumber + "@" + pStart.withNano(0);
+    }
+}
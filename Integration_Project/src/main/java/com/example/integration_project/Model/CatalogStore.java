@@ -0,0 +1,193 @@
+package com.example.integration_project.Model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Holds one catalog of the theater, such as its movies, showtimes or showrooms, as an
+ * immutable snapshot that is replaced on every change (copy-on-write).
+ *
+ * <p>Readers call {@link #snapshot()} from any thread without locking and get a list
+ * that never changes under them. Writers are serialized on the store's monitor, and
+ * each change is handed to the listeners while the writer still holds it, so listeners
+ * see the changes one at a time and in order. Code that keeps state derived from the
+ * catalog, like the indexes of the managers, can synchronize on the store to read that
+ * state consistently.</p>
+ *
+ * <p>The bulk operations publish a whole batch as one change, so listeners, and the
+ * list views behind them, handle it once instead of once per entry.</p>
+ *
+ * @param <T> the type of the catalog entries
+ * @author Ian
+ * @version 1.0
+ */
+public class CatalogStore<T> {
+
+    /**
+     * Receives the changes of a store.
+     *
+     * @param <T> the type of the catalog entries
+     */
+    public interface CatalogListener<T> {
+        /**
+         * Called after a change is published, on the writer's thread and while it holds the store.
+         *
+         * @param removed  the entries taken out of the catalog
+         * @param added    the entries put into the catalog, in catalog order
+         * @param snapshot the catalog after the change
+         */
+        void catalogChanged(List<T> removed, List<T> added, List<T> snapshot);
+    }
+
+    private volatile List<T> snapshot = List.of();
+    private final CopyOnWriteArrayList<CatalogListener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Gets the current catalog.
+     *
+     * @return an immutable list of the entries, in the order they were added
+     */
+    public List<T> snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Adds an entry at the end of the catalog.
+     *
+     * @param entry the entry to add
+     * @throws IllegalArgumentException if entry is null
+     */
+    public synchronized void add(T entry) {
+        if (entry == null) {
+            throw new IllegalArgumentException("Entry cannot be null");
+        }
+        List<T> next = new ArrayList<>(snapshot.size() + 1);
+        next.addAll(snapshot);
+        next.add(entry);
+        publish(List.of(), List.of(entry), next);
+    }
+
+    /**
+     * Removes an entry from the catalog.
+     *
+     * @param entry the entry to remove, compared by identity
+     * @return true if the entry was in the catalog
+     */
+    public synchronized boolean remove(T entry) {
+        List<T> current = snapshot;
+        for (int i = 0; i < current.size(); i++) {
+            if (current.get(i) == entry) {
+                List<T> next = new ArrayList<>(current.size() - 1);
+                next.addAll(current.subList(0, i));
+                next.addAll(current.subList(i + 1, current.size()));
+                publish(List.of(entry), List.of(), next);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds entries at the end of the catalog as one change.
+     *
+     * @param entries the entries to add, in order
+     * @throws IllegalArgumentException if entries is null or holds a null entry
+     */
+    public synchronized void addAll(Collection<? extends T> entries) {
+        List<T> added = copyOf(entries);
+        if (added.isEmpty()) {
+            return;
+        }
+        List<T> next = new ArrayList<>(snapshot.size() + added.size());
+        next.addAll(snapshot);
+        next.addAll(added);
+        publish(List.of(), added, next);
+    }
+
+    /**
+     * Removes entries from the catalog as one change.
+     *
+     * @param entries the entries to remove, compared by identity
+     * @return the number of entries that were in the catalog
+     * @throws IllegalArgumentException if entries is null
+     */
+    public synchronized int removeAll(Collection<? extends T> entries) {
+        if (entries == null) {
+            throw new IllegalArgumentException("Entries cannot be null");
+        }
+        Set<T> leaving = Collections.newSetFromMap(new IdentityHashMap<>());
+        leaving.addAll(entries);
+        List<T> removed = new ArrayList<>();
+        List<T> next = new ArrayList<>(snapshot.size());
+        for (T entry : snapshot) {
+            if (leaving.contains(entry)) {
+                removed.add(entry);
+            } else {
+                next.add(entry);
+            }
+        }
+        if (!removed.isEmpty()) {
+            publish(Collections.unmodifiableList(removed), List.of(), next);
+        }
+        return removed.size();
+    }
+
+    /**
+     * Replaces the whole catalog.
+     *
+     * @param entries the new entries
+     * @throws IllegalArgumentException if entries is null or holds a null entry
+     */
+    public synchronized void setAll(Collection<? extends T> entries) {
+        List<T> next = copyOf(entries);
+        publish(snapshot, next, new ArrayList<>(next));
+    }
+
+    /**
+     * Registers a listener for the changes published after this call.
+     *
+     * @param listener the listener to add
+     * @throws IllegalArgumentException if listener is null
+     */
+    public void addListener(CatalogListener<T> listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(CatalogListener<T> listener) {
+        listeners.remove(listener);
+    }
+
+    private static <T> List<T> copyOf(Collection<? extends T> entries) {
+        if (entries == null) {
+            throw new IllegalArgumentException("Entries cannot be null");
+        }
+        List<T> copy = new ArrayList<>(entries);
+        for (T entry : copy) {
+            if (entry == null) {
+                throw new IllegalArgumentException("Entry cannot be null");
+            }
+        }
+        return Collections.unmodifiableList(copy);
+    }
+
+    private void publish(List<T> removed, List<T> added, List<T> next) {
+        List<T> published = Collections.unmodifiableList(next);
+        snapshot = published;
+        for (CatalogListener<T> listener : listeners) {
+            listener.catalogChanged(removed, added, published);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.integration_project.Model;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A hashed timing wheel that runs delayed tasks on a single timer thread.
+ *
+ * <p>The wheel is a ring of buckets, each covering one tick. A task is placed in the
+ * bucket of its deadline together with the number of full turns still to go, so
+ * scheduling and cancelling cost O(1) no matter how many tasks are pending. The timer
+ * thread only looks at one bucket per tick. This keeps tens of thousands of pending
+ * timeouts cheap, where one scheduled task each would not be.</p>
+ *
+ * <p>New tasks are handed to the timer thread through a lock-free queue, so any thread
+ * may schedule or cancel. Cancelled tasks are dropped the next time their bucket comes
+ * around. Tasks run on the timer thread and should be short.</p>
+ *
+ * @author Ian
+ * @version 1.0
+ */
+public class HashedTimingWheel implements AutoCloseable {
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public interface Timeout {
+        /**
+         * Cancels the task if it has not run yet.
+         *
+         * @return true if the task was cancelled, false if it already ran or was cancelled
+         */
+        boolean cancel();
+
+        /**
+         * Checks whether the task has already run.
+         *
+         * @return true if the task ran
+         */
+        boolean isExpired();
+    }
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long tickNanos;
+    private final int mask;
+    private final Bucket[] wheel;
+    private final ConcurrentLinkedQueue<Entry> newEntries = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean running = true;
+    private long currentTick;
+
+    /**
+     * Constructs a timing wheel and starts its timer thread.
+     *
+     * @param tickDuration the length of one tick (must be greater than 0)
+     * @param unit         the unit of tickDuration
+     * @param ticksPerWheel the number of buckets, rounded up to a power of two (must be greater than 0)
+     * @param threadName   the name of the timer thread
+     * @throws IllegalArgumentException if tickDuration or ticksPerWheel is not greater than 0
+     */
+    public HashedTimingWheel(long tickDuration, TimeUnit unit, int ticksPerWheel, String threadName) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be greater than zero");
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+            throw new IllegalArgumentException("Ticks per wheel must be between 1 and 2^30");
+        }
+        int size = 1;
+        while (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = size - 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, threadName);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedules a task to run once after a delay.
+     *
+     * @param task  the task to run on the timer thread
+     * @param delay the delay before running the task
+     * @param unit  the unit of delay
+     * @return a handle that can cancel the task
+     * @throws IllegalArgumentException if task is null
+     * @throws IllegalStateException if the wheel has been closed
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        if (!running) {
+            throw new IllegalStateException("Timing wheel is closed");
+        }
+        long deadline = System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+        Entry entry = new Entry(task, deadline);
+        pendingCount.incrementAndGet();
+        newEntries.add(entry);
+        return entry;
+    }
+
+    /**
+     * Gets the number of tasks that are scheduled and have neither run nor been cancelled.
+     *
+     * @return the number of pending tasks
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Stops the timer thread. Tasks that have not run yet are discarded.
+     */
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long tickDeadline = (currentTick + 1) * tickNanos;
+            long sleepNanos = tickDeadline - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            transferNewEntries();
+            wheel[(int) (currentTick & mask)].expireEntries();
+            currentTick++;
+        }
+    }
+
+    private void transferNewEntries() {
+        Entry entry;
+        while ((entry = newEntries.poll()) != null) {
+            if (entry.state.get() != PENDING) {
+                continue;
+            }
+            long ticks = Math.max(entry.deadline / tickNanos, currentTick);
+            entry.remainingRounds = (ticks - currentTick) / wheel.length;
+            wheel[(int) (ticks & mask)].add(entry);
+        }
+    }
+
+    /**
+     * A scheduled task, linked into the bucket of its deadline.
+     */
+    private final class Entry implements Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private long remainingRounds;
+        private Entry next;
+        private Entry prev;
+
+        private Entry(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (state.compareAndSet(PENDING, CANCELLED)) {
+                pendingCount.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (state.compareAndSet(PENDING, EXPIRED)) {
+                pendingCount.decrementAndGet();
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    // A failing task must not stop the timer thread
+                }
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of entries, only touched by the timer thread.
+     */
+    private static final class Bucket {
+        private Entry head;
+        private Entry tail;
+
+        private void add(Entry entry) {
+            entry.prev = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+        }
+
+        private void remove(Entry entry) {
+            if (entry.prev == null) {
+                head = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+            entry.next = null;
+            entry.prev = null;
+        }
+
+        private void expireEntries() {
+            Entry entry = head;
+            while (entry != null) {
+                Entry next = entry.next;
+                if (entry.state.get() != PENDING) {
+                    remove(entry);
+                } else if (entry.remainingRounds <= 0) {
+                    remove(entry);
+                    entry.expire();
+                } else {
+                    entry.remainingRounds--;
+                }
+                entry = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.integration_project.Model;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * <h1>IdempotencyCache</h1>
+ * Remembers the result of requests by a client-supplied key, so a retried request gets
+ * the original result instead of running again.
+ *
+ * <p>The first call with a key runs the action; calls with the same key that arrive
+ * while it runs wait for it and return the same result. Failed actions are forgotten so
+ * they can be retried. Entries are kept in insertion order and evicted once they are
+ * older than the time to live or when the cache holds more than its maximum number of
+ * entries, so memory stays bounded however many retries arrive. An entry whose action is
+ * still running is never evicted, so a retry can never run the action a second time
+ * (the cache may briefly exceed its maximum while many actions run). Lookups never lock.</p>
+ *
+ * @param <V> the type of the remembered results
+ * @author Dieudonné
+ * @version 1.0
+ * @see BookingService
+ */
+public class IdempotencyCache<V> {
+
+    /**
+     * The result of one request.
+     */
+    private record Entry<V>(String key, CompletableFuture<V> result, long createdNanos) {
+    }
+
+    private final ConcurrentHashMap<String, Entry<V>> aEntries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<Entry<V>> aOrder = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger aSize = new AtomicInteger();
+    private final int aMaxEntries;
+    private final long aTimeToLiveNanos;
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param pMaxEntries the most results kept at once (must be greater than 0)
+     * @param pTimeToLive how long a result is remembered (must be positive)
+     * @throws IllegalArgumentException if an argument is invalid
+     */
+    public IdempotencyCache(int pMaxEntries, Duration pTimeToLive) {
+        if (pMaxEntries <= 0) {
+            throw new IllegalArgumentException("Maximum entries must be greater than zero");
+        }
+        if (pTimeToLive == null || pTimeToLive.isNegative() || pTimeToLive.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        aMaxEntries = pMaxEntries;
+        aTimeToLiveNanos = pTimeToLive.toNanos();
+    }
+
+    /**
+     * Runs an action once per key and returns its result to every call with that key.
+     *
+     * @param pKey    the idempotency key of the request
+     * @param pAction the action to run the first time the key is seen
+     * @return the result of the first successful run for the key
+     * @throws IllegalArgumentException if pKey is blank or pAction is null
+     * @throws RuntimeException whatever the action threw, also to calls that waited for it
+     */
+    public V execute(String pKey, Supplier<V> pAction) {
+        if (pKey == null || pKey.isBlank()) {
+            throw new IllegalArgumentException("Idempotency key cannot be empty");
+        }
+        if (pAction == null) {
+            throw new IllegalArgumentException("Action cannot be null");
+        }
+        long now = System.nanoTime();
+        evictExpired(now);
+
+        Entry<V> mine = new Entry<>(pKey, new CompletableFuture<>(), now);
+        while (true) {
+            Entry<V> existing = aEntries.putIfAbsent(pKey, mine);
+            if (existing == null) {
+                break;
+            }
+            if (!isExpired(existing, now) || !existing.result().isDone()) {
+                return await(existing);
+            }
+            if (aEntries.replace(pKey, existing, mine)) {
+                break;
+            }
+        }
+        aOrder.add(mine);
+        aSize.incrementAndGet();
+
+        V result;
+        try {
+            result = pAction.get();
+        } catch (RuntimeException e) {
+            // Running entries are never evicted, so this one is still linked (near the tail)
+            aEntries.remove(pKey, mine);
+            if (aOrder.removeLastOccurrence(mine)) {
+                aSize.decrementAndGet();
+            }
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+        mine.result().complete(result);
+        // Only results that are kept make room, so failing requests never push others out
+        if (aSize.get() > aMaxEntries) {
+            evictOldest();
+        }
+        return result;
+    }
+
+    /**
+     * Gets the remembered result of a key without running anything.
+     *
+     * @param pKey the idempotency key
+     * @return the result, or null if the key is unknown, still running, failed or evicted
+     */
+    public V getIfPresent(String pKey) {
+        if (pKey == null) {
+            return null;
+        }
+        Entry<V> entry = aEntries.get(pKey);
+        if (entry == null || isExpired(entry, System.nanoTime()) || !entry.result().isDone()
+                || entry.result().isCompletedExceptionally()) {
+            return null;
+        }
+        return entry.result().join();
+    }
+
+    /**
+     * Gets the number of remembered results, including ones that are still running.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return aEntries.size();
+    }
+
+    private boolean isExpired(Entry<V> pEntry, long pNow) {
+        return pNow - pEntry.createdNanos() > aTimeToLiveNanos;
+    }
+
+    /**
+     * Drops entries from the old end of the queue while they are past their time to live.
+     * Entries that are still running are skipped.
+     */
+    private void evictExpired(long pNow) {
+        for (Entry<V> entry : aOrder) {
+            if (!isExpired(entry, pNow)) {
+                return;
+            }
+            if (entry.result().isDone()) {
+                unlink(entry);
+            }
+        }
+    }
+
+    /**
+     * Drops the oldest finished entries until the cache is back within its maximum size.
+     */
+    private void evictOldest() {
+        for (Entry<V> entry : aOrder) {
+            if (aSize.get() <= aMaxEntries) {
+                return;
+            }
+            if (entry.result().isDone()) {
+                unlink(entry);
+            }
+        }
+    }
+
+    private void unlink(Entry<V> pEntry) {
+        // Only the thread that takes the entry out of the queue counts it
+        if (aOrder.removeFirstOccurrence(pEntry)) {
+            aEntries.remove(pEntry.key(), pEntry);
+            aSize.decrementAndGet();
+        }
+    }
+
+    private static <V> V await(Entry<V> pEntry) {
+        try {
+            return pEntry.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
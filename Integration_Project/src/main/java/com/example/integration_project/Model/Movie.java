@@ -1,23 +1,62 @@
 package com.example.integration_project.Model;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Represents a movie in the theater system.
- * Encapsulates movie information including its name.
+ * Encapsulates movie information including its name and runtime.
+ * Every movie gets a compact numeric id that never changes, even when it is renamed.
+ * The id only lives as long as the process: the catalog is rebuilt on every start, so
+ * the id must not be written anywhere that outlives the run.
+ * A showing of the movie keeps its showroom for the runtime plus a cleaning buffer.
  * 
  * @author Ian
  * @version 1.0
  */
 public class Movie {
+    /** Runtime of a movie created without one. */
+    public static final Duration DEFAULT_RUNTIME = Duration.ofMinutes(120);
+
+    /** Time a showroom needs to be cleaned after every showing. */
+    public static final Duration CLEANING_BUFFER = Duration.ofMinutes(15);
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+
+    private final int id = NEXT_ID.getAndIncrement();
     private String movieName;
+    private Duration runtime;
 
     /**
-     * Constructs a Movie with the specified name.
+     * Constructs a Movie with the specified name and the default runtime.
      * 
      * @param movieName the name of the movie
      * @throws IllegalArgumentException if movieName is null or blank
      */
     public Movie(String movieName) {
+        this(movieName, DEFAULT_RUNTIME);
+    }
+
+    /**
+     * Constructs a Movie with the specified name and runtime.
+     * 
+     * @param movieName the name of the movie
+     * @param runtime   the length of the movie
+     * @throws IllegalArgumentException if movieName is null or blank, or if runtime is
+     *                                  null or not positive
+     */
+    public Movie(String movieName, Duration runtime) {
         setMovieName(movieName);
+        setRuntime(runtime);
+    }
+
+    /**
+     * Gets the numeric id of the movie.
+     * 
+     * @return the id, unique among the movies of this run and always greater than 0
+     */
+    public int getId() {
+        return id;
     }
 
     /**
@@ -33,13 +72,74 @@ public class Movie {
      * Sets the name of the movie with validation.
      * 
      * @param movieName the name to set for the movie
-     * @throws IllegalArgumentException if movieName is null or blank
+     * @throws IllegalArgumentException if movieName is null or blank, or if the movie is in
+     *                                  the catalog and another movie there has that name
      */
     public void setMovieName(String movieName) {
         if (movieName == null || movieName.isBlank()) {
             throw new IllegalArgumentException("Movie name must not be empty");
         }
-        this.movieName = movieName.trim();
+        String name = movieName.trim();
+        MovieManager.rename(this, this.movieName, name, () -> this.movieName = name);
+    }
+
+    /**
+     * Gets the runtime of the movie.
+     * 
+     * @return the length of the movie
+     */
+    public Duration getRuntime() {
+        return runtime;
+    }
+
+    /**
+     * Gets how long a showing of the movie keeps its showroom.
+     * 
+     * @return the runtime plus the cleaning buffer
+     */
+    public Duration getScreenTime() {
+        return runtime.plus(CLEANING_BUFFER);
+    }
+
+    /**
+     * Sets the runtime of the movie with validation.
+     * 
+     * @param runtime the length of the movie
+     * @throws IllegalArgumentException if runtime is null or not positive, or if a longer
+     *                                  runtime would make a scheduled showing overlap the
+     *                                  next one in its showroom
+     */
+    public void setRuntime(Duration runtime) {
+        if (runtime == null || runtime.isNegative() || runtime.isZero()) {
+            throw new IllegalArgumentException("Runtime must be positive");
+        }
+        ShowtimeManager.changeRuntime(this, runtime, () -> this.runtime = runtime);
+    }
+
+    /**
+     * Changes the name and runtime together, so an edit either applies both or neither.
+     * 
+     * @param movieName the name to set for the movie
+     * @param runtime   the length of the movie
+     * @throws IllegalArgumentException if movieName is null or blank, if runtime is null or
+     *                                  not positive, if another movie of the catalog has
+     *                                  that name, or if a longer runtime would make a
+     *                                  scheduled showing overlap the next one in its
+     *                                  showroom; nothing is changed then
+     */
+    public void update(String movieName, Duration runtime) {
+        if (movieName == null || movieName.isBlank()) {
+            throw new IllegalArgumentException("Movie name must not be empty");
+        }
+        if (runtime == null || runtime.isNegative() || runtime.isZero()) {
+            throw new IllegalArgumentException("Runtime must be positive");
+        }
+        String name = movieName.trim();
+        // The rename runs once the runtime is known to fit, and only sets both if the name is free
+        ShowtimeManager.changeRuntime(this, runtime, () -> MovieManager.rename(this, this.movieName, name, () -> {
+            this.movieName = name;
+            this.runtime = runtime;
+        }));
     }
 
     @Override
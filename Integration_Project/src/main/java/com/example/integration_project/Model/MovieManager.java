@@ -3,30 +3,71 @@ package com.example.integration_project.Model;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Manages the collection of movies in the theater system.
  * Handles adding, removing, and retrieving movies.
+ * Movies are also indexed by case-folded title, so {@link #findByName(String)} and
+ * {@link #movieExists(String)} answer in constant time. The index follows every change
+ * of the catalog and every rename through {@link Movie#setMovieName(String)}.
+ * The movies live in a {@link CatalogStore}, so any thread can browse a snapshot of them
+ * without locking. The index is guarded by the store's monitor.
  * 
  * @author Ian
  * @version 1.0
  */
 public class MovieManager {
-    private static ObservableList<Movie> movies;
+    private static final CatalogStore<Movie> catalog = new CatalogStore<>();
+
+    /** The movies as shown by the UI, kept by an FX adapter bound to the catalog. */
+    private static final ObservableList<Movie> movies = FXCollections.observableArrayList();
+
+    /** Movies by case-folded title; the first of several movies with the same title. */
+    private static final Map<String, Movie> titles = new HashMap<>();
+
+    /** Number of movies left out of the index because another one has the same title. */
+    private static int unindexed;
 
     private static MovieManager aInstance;
 
-    public MovieManager() {
-        movies = FXCollections.observableArrayList();
+    static {
+        catalog.addListener((removed, added, snapshot) -> {
+            for (Movie movie : removed) {
+                unindex(movie, fold(movie.getName()));
+            }
+            for (Movie movie : added) {
+                index(movie, fold(movie.getName()));
+            }
+        });
+    }
+
+    private MovieManager() {
     }
 
-    public static MovieManager getMovieManagerInstance() {
+    public static synchronized MovieManager getMovieManagerInstance() {
         if (aInstance == null) {
             aInstance = new MovieManager();
         }
         return aInstance;
     }
+
     /**
-     * Gets the list of all movies.
+     * Gets the catalog of movies, which any thread may read.
+     * 
+     * @return the store holding the movies
+     */
+    public static CatalogStore<Movie> getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Gets the list of all movies as shown by the UI. It mirrors the catalog once an
+     * FX adapter is bound to it and may only be used on the FX thread.
      * 
      * @return an ObservableList containing all movies
      */
@@ -44,10 +85,12 @@ public class MovieManager {
         if (movie == null) {
             throw new IllegalArgumentException("Movie cannot be null");
         }
-        if (movieExists(movie.getName())) {
-            throw new IllegalArgumentException("Movie \"" + movie.getName() + "\" already exists.");
+        synchronized (catalog) {
+            if (movieExists(movie.getName())) {
+                throw new IllegalArgumentException("Movie \"" + movie.getName() + "\" already exists.");
+            }
+            catalog.add(movie);
         }
-        movies.add(movie);
     }
 
     /**
@@ -57,12 +100,23 @@ public class MovieManager {
      * @return true if a movie with that name exists, false otherwise
      */
     public boolean movieExists(String movieName) {
-        for (Movie m : movies) {
-            if (m.getName().equalsIgnoreCase(movieName)) {
-                return true;
-            }
+        return findByName(movieName) != null;
+    }
+
+    /**
+     * Finds a movie by name, ignoring case, in constant time.
+     *
+     * @param movieName the name of the movie
+     * @return the movie with that name, or null if there is none
+     */
+    public Movie findByName(String movieName) {
+        if (movieName == null) {
+            return null;
+        }
+        String title = fold(movieName);
+        synchronized (catalog) {
+            return titles.get(title);
         }
-        return false;
     }
 
     /**
@@ -75,6 +129,153 @@ public class MovieManager {
         if (movie == null) {
             throw new IllegalArgumentException("Movie cannot be null");
         }
-        movies.remove(movie);
+        catalog.remove(movie);
+    }
+
+    /**
+     * Adds several movies as one change, so the UI updates once.
+     * 
+     * @param newMovies the movies to add, in order
+     * @throws IllegalArgumentException if newMovies is null or holds a null movie, or if
+     *                                  a title is already in the collection or repeats in
+     *                                  the batch; no movie is added then
+     */
+    public void addMovies(Collection<Movie> newMovies) {
+        synchronized (catalog) {
+            checkTitles(newMovies, true);
+            catalog.addAll(newMovies);
+        }
+    }
+
+    /**
+     * Removes several movies as one change, so the UI updates once.
+     * 
+     * @param oldMovies the movies to remove
+     * @throws IllegalArgumentException if oldMovies is null
+     */
+    public void removeMovies(Collection<Movie> oldMovies) {
+        if (oldMovies == null) {
+            throw new IllegalArgumentException("Movies cannot be null");
+        }
+        catalog.removeAll(oldMovies);
+    }
+
+    /**
+     * Replaces all movies as one change, so the UI updates once.
+     * 
+     * @param newMovies the new movies, in order
+     * @throws IllegalArgumentException if newMovies is null or holds a null movie, or if
+     *                                  a title repeats in it; nothing changes then
+     */
+    public void replaceMovies(Collection<Movie> newMovies) {
+        synchronized (catalog) {
+            checkTitles(newMovies, false);
+            catalog.setAll(newMovies);
+        }
+    }
+
+    /**
+     * Checks a batch of movies before it goes into the catalog.
+     *
+     * @param againstCatalog whether the titles must also be new to the catalog
+     */
+    private static void checkTitles(Collection<Movie> batch, boolean againstCatalog) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Movies cannot be null");
+        }
+        Set<String> seen = new HashSet<>();
+        for (Movie movie : batch) {
+            if (movie == null) {
+                throw new IllegalArgumentException("Movie cannot be null");
+            }
+            String title = fold(movie.getName());
+            if (!seen.add(title) || againstCatalog && titles.containsKey(title)) {
+                throw new IllegalArgumentException("Movie \"" + movie.getName() + "\" already exists.");
+            }
+        }
+    }
+
+    /**
+     * Renames a movie and keeps the index up to date. Called by
+     * {@link Movie#setMovieName(String)} and
+     * {@link Movie#update(String, java.time.Duration)}, which pass the assignment of the new name.
+     *
+     * @param movie   the movie being renamed
+     * @param oldName its current name, or null while it is being constructed
+     * @param newName its new name
+     * @param rename  sets the new name on the movie
+     * @throws IllegalArgumentException if the movie is in the catalog and another movie
+     *                                  there already has the new name
+     */
+    static void rename(Movie movie, String oldName, String newName, Runnable rename) {
+        if (oldName == null) {
+            rename.run();
+            return;
+        }
+        String oldTitle = fold(oldName);
+        String newTitle = fold(newName);
+        synchronized (catalog) {
+            if (oldTitle.equals(newTitle) || !inCatalog(movie, oldTitle)) {
+                rename.run();
+                return;
+            }
+            Movie holder = titles.get(newTitle);
+            if (holder != null && holder != movie) {
+                throw new IllegalArgumentException("Movie \"" + newName + "\" already exists.");
+            }
+            unindex(movie, oldTitle);
+            rename.run();
+            index(movie, newTitle);
+        }
+    }
+
+    private static boolean inCatalog(Movie movie, String title) {
+        if (titles.get(title) == movie) {
+            return true;
+        }
+        if (unindexed > 0) {
+            for (Movie m : catalog.snapshot()) {
+                if (m == movie) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void index(Movie movie, String title) {
+        if (titles.putIfAbsent(title, movie) != null) {
+            unindexed++;
+        }
+    }
+
+    /**
+     * Takes a movie out of the index. If another movie has the same title, it takes its place.
+     */
+    private static void unindex(Movie movie, String title) {
+        if (titles.get(title) != movie) {
+            unindexed--;
+            return;
+        }
+        titles.remove(title);
+        if (unindexed > 0) {
+            for (Movie m : catalog.snapshot()) {
+                if (m != movie && fold(m.getName()).equals(title)) {
+                    titles.put(title, m);
+                    unindexed--;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Folds a title the way {@link String#equalsIgnoreCase(String)} compares characters,
+     * so two titles have the same key exactly when they are equal ignoring case.
+     */
+    private static String fold(String title) {
+        StringBuilder folded = new StringBuilder(title.length());
+        title.codePoints().forEach(c -> folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(c))));
+        return folded.toString();
     }
 }
@@ -0,0 +1,303 @@
+package com.example.integration_project.Model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * <h1>ReportEngine</h1>
+ * Aggregates ticket sales by movie, by showtime and by hour of purchase, in parallel.
+ *
+ * <p>A report runs in two steps. {@link #prepare(List)} is called on the thread that
+ * owns the ticket list (normally the FX thread) and copies the few columns the report
+ * needs, which is a plain array copy for a {@link TicketStore}. The returned supplier
+ * can then run on any thread: it splits the rows into chunks, counts each chunk in its
+ * own fork/join task into small arrays indexed by dictionary code, and adds the partial
+ * arrays together as the tasks join. Every core of the pool takes part, and no map or
+ * lock is shared between the tasks. Archived tickets are aggregated the same way with
+ * {@link #report(TicketArchive)}, straight from the archive's mapped files.</p>
+ *
+ * @author Dieudonné
+ * @version 1.0
+ * @see TicketStore
+ */
+public class ReportEngine {
+
+    /** Rows counted by one task before it stops splitting. */
+    private static final int CHUNK_ROWS = 1 << 16;
+
+    private static final int HOURS = 24;
+
+    /**
+     * The result of a report.
+     *
+     * @param byMovie        tickets per movie name, in order of first sale
+     * @param byShowtime     tickets per showtime, in order of first sale
+     * @param byPurchaseHour tickets per hour of the day they were bought, indexed 0 to 23
+     * @param ticketCount    the number of tickets in the report
+     */
+    public record SalesReport(Map<String, Long> byMovie, Map<String, Long> byShowtime,
+                              long[] byPurchaseHour, long ticketCount) {
+
+        /**
+         * Adds two reports together, e.g. the live tickets and the archived ones.
+         *
+         * @param pOther the report to add
+         * @return a new report with the sums
+         * @throws IllegalArgumentException if pOther is null
+         */
+        public SalesReport plus(SalesReport pOther) {
+            if (pOther == null) {
+                throw new IllegalArgumentException("Report cannot be null");
+            }
+            Map<String, Long> movies = new LinkedHashMap<>(byMovie);
+            pOther.byMovie().forEach((movie, sold) -> movies.merge(movie, sold, Long::sum));
+            Map<String, Long> showtimes = new LinkedHashMap<>(byShowtime);
+            pOther.byShowtime().forEach((showtime, sold) -> showtimes.merge(showtime, sold, Long::sum));
+            long[] hours = byPurchaseHour.clone();
+            for (int hour = 0; hour < hours.length; hour++) {
+                hours[hour] += pOther.byPurchaseHour()[hour];
+            }
+            return new SalesReport(movies, showtimes, hours, ticketCount + pOther.ticketCount());
+        }
+    }
+
+    /**
+     * The columns a report reads, copied from the ticket list.
+     */
+    record Columns(int size, int[] movieCodes, int[] showtimeCodes, long[] purchased,
+                   List<String> movieNames, List<String> showtimeLabels) {
+    }
+
+    private final ForkJoinPool aPool;
+
+    /**
+     * Constructs a report engine running on the common fork/join pool.
+     */
+    public ReportEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a report engine running on the given pool.
+     *
+     * @param pPool the pool the aggregation runs on
+     * @throws IllegalArgumentException if pPool is null
+     */
+    public ReportEngine(ForkJoinPool pPool) {
+        if (pPool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        aPool = pPool;
+    }
+
+    /**
+     * Copies the ticket data a report needs. Must be called on the thread that owns the list.
+     *
+     * @param pTickets the tickets to report on
+     * @return a supplier that builds the report on any thread
+     * @throws IllegalArgumentException if pTickets is null
+     */
+    public Supplier<SalesReport> prepare(List<Ticket> pTickets) {
+        if (pTickets == null) {
+            throw new IllegalArgumentException("Tickets cannot be null");
+        }
+        Columns columns = pTickets instanceof TicketStore store ? store.columns() : columnsOf(pTickets);
+        return () -> aggregate(columns);
+    }
+
+    /**
+     * Copies and aggregates the tickets in one call, for callers that own the list.
+     *
+     * @param pTickets the tickets to report on
+     * @return the report
+     * @throws IllegalArgumentException if pTickets is null
+     */
+    public SalesReport report(List<Ticket> pTickets) {
+        return prepare(pTickets).get();
+    }
+
+    /**
+     * Aggregates the tickets of an archive, reading its mapped records in parallel. May be
+     * called on any thread, also while tickets are being archived; tickets appended during
+     * the call are left out.
+     *
+     * @param pArchive the archive to report on
+     * @return the report
+     * @throws IllegalArgumentException if pArchive is null
+     */
+    public SalesReport report(TicketArchive pArchive) {
+        if (pArchive == null) {
+            throw new IllegalArgumentException("Archive cannot be null");
+        }
+        // Read the size first: the dictionaries read next cover every code it includes
+        long size = pArchive.size();
+        List<String> movieNames = pArchive.movieNames();
+        List<String> showtimeLabels = pArchive.showtimeLabels();
+        Partial totals = aPool.invoke(new ArchiveTask(pArchive, movieNames.size(), showtimeLabels.size(), 0, size));
+        return new SalesReport(label(totals.aMovies, movieNames), label(totals.aShowtimes, showtimeLabels),
+                totals.aHours, size);
+    }
+
+    private SalesReport aggregate(Columns pColumns) {
+        Partial totals = aPool.invoke(new CountTask(pColumns, 0, pColumns.size()));
+        return new SalesReport(
+                label(totals.aMovies, pColumns.movieNames()),
+                label(totals.aShowtimes, pColumns.showtimeLabels()),
+                totals.aHours,
+                pColumns.size());
+    }
+
+    /**
+     * Turns counts indexed by dictionary code into a map keyed by label. Codes with the
+     * same label (e.g. two movies with the same name) are added together.
+     */
+    private static Map<String, Long> label(long[] pCounts, List<String> pLabels) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int code = 0; code < pCounts.length; code++) {
+            if (pCounts[code] > 0) {
+                result.merge(String.valueOf(pLabels.get(code)), pCounts[code], Long::sum);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copies the columns of a plain list of tickets, encoding movies and showtimes on the way.
+     */
+    private static Columns columnsOf(List<Ticket> pTickets) {
+        int size = pTickets.size();
+        int[] movieCodes = new int[size];
+        int[] showtimeCodes = new int[size];
+        long[] purchased = new long[size];
+        List<String> movieNames = new ArrayList<>();
+        List<String> showtimeLabels = new ArrayList<>();
+        Map<String, Integer> movieIndex = new LinkedHashMap<>();
+        Map<String, Integer> showtimeIndex = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            Ticket ticket = pTickets.get(i);
+            movieCodes[i] = movieIndex.computeIfAbsent(ticket.getName(), name -> {
+                movieNames.add(name);
+                return movieNames.size() - 1;
+            });
+            showtimeCodes[i] = showtimeIndex.computeIfAbsent(ticket.getTime(), label -> {
+                showtimeLabels.add(label);
+                return showtimeLabels.size() - 1;
+            });
+            LocalDateTime time = ticket.getaPurchaseDateTime();
+            purchased[i] = time == null ? TicketStore.NO_TIME : time.toEpochSecond(ZoneOffset.UTC);
+        }
+        return new Columns(size, movieCodes, showtimeCodes, purchased, movieNames, showtimeLabels);
+    }
+
+    /**
+     * Counts of one chunk of rows.
+     */
+    private static final class Partial {
+        private final long[] aMovies;
+        private final long[] aShowtimes;
+        private final long[] aHours = new long[HOURS];
+
+        private Partial(Columns pColumns) {
+            this(pColumns.movieNames().size(), pColumns.showtimeLabels().size());
+        }
+
+        private Partial(int pMovies, int pShowtimes) {
+            aMovies = new long[pMovies];
+            aShowtimes = new long[pShowtimes];
+        }
+
+        private Partial merge(Partial pOther) {
+            for (int i = 0; i < aMovies.length; i++) {
+                aMovies[i] += pOther.aMovies[i];
+            }
+            for (int i = 0; i < aShowtimes.length; i++) {
+                aShowtimes[i] += pOther.aShowtimes[i];
+            }
+            for (int i = 0; i < HOURS; i++) {
+                aHours[i] += pOther.aHours[i];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Splits the row range in half until it is small enough, then counts it.
+     */
+    @SuppressWarnings("serial") // Tasks are never serialized
+    private static final class CountTask extends RecursiveTask<Partial> {
+        private final Columns aColumns;
+        private final int aFrom;
+        private final int aTo;
+
+        private CountTask(Columns pColumns, int pFrom, int pTo) {
+            aColumns = pColumns;
+            aFrom = pFrom;
+            aTo = pTo;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (aTo - aFrom > CHUNK_ROWS) {
+                int middle = (aFrom + aTo) >>> 1;
+                CountTask left = new CountTask(aColumns, aFrom, middle);
+                left.fork();
+                Partial right = new CountTask(aColumns, middle, aTo).compute();
+                return left.join().merge(right);
+            }
+            Partial partial = new Partial(aColumns);
+            int[] movies = aColumns.movieCodes();
+            int[] showtimes = aColumns.showtimeCodes();
+            long[] purchased = aColumns.purchased();
+            for (int i = aFrom; i < aTo; i++) {
+                partial.aMovies[movies[i]]++;
+                partial.aShowtimes[showtimes[i]]++;
+                if (purchased[i] != TicketStore.NO_TIME) {
+                    partial.aHours[(int) (Math.floorMod(purchased[i], 86_400L) / 3_600)]++;
+                }
+            }
+            return partial;
+        }
+    }
+
+    /**
+     * Splits a range of archived tickets in half until it is small enough, then counts it
+     * straight from the mapped segments.
+     */
+    @SuppressWarnings("serial") // Tasks are never serialized
+    private static final class ArchiveTask extends RecursiveTask<Partial> {
+        private final TicketArchive aArchive;
+        private final int aMovies;
+        private final int aShowtimes;
+        private final long aFrom;
+        private final long aTo;
+
+        private ArchiveTask(TicketArchive pArchive, int pMovies, int pShowtimes, long pFrom, long pTo) {
+            aArchive = pArchive;
+            aMovies = pMovies;
+            aShowtimes = pShowtimes;
+            aFrom = pFrom;
+            aTo = pTo;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (aTo - aFrom > CHUNK_ROWS) {
+                long middle = (aFrom + aTo) >>> 1;
+                ArchiveTask left = new ArchiveTask(aArchive, aMovies, aShowtimes, aFrom, middle);
+                left.fork();
+                Partial right = new ArchiveTask(aArchive, aMovies, aShowtimes, middle, aTo).compute();
+                return left.join().merge(right);
+            }
+            Partial partial = new Partial(aMovies, aShowtimes);
+            aArchive.count(aFrom, aTo, partial.aMovies, partial.aShowtimes, partial.aHours);
+            return partial;
+        }
+    }
+}
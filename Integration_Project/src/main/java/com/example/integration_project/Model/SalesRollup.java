@@ -0,0 +1,213 @@
+package com.example.integration_project.Model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * <h1>SalesRollup</h1>
+ * Streaming sales totals per hour, day and week of purchase.
+ *
+ * <p>Every ticket added to or removed from the {@link TicketStore} is recorded here as
+ * it happens. Each granularity keeps a fixed ring of the most recent buckets; when the
+ * ring moves on, the bucket that falls off is compacted into a single total of older
+ * sales. Recording a ticket and reading a bucket cost constant time, and a window costs
+ * at most one pass over its ring, however much history has been loaded.</p>
+ *
+ * <p>Purchase times are read as local date-times, so buckets follow the theater's wall
+ * clock. Weeks start on Monday.</p>
+ *
+ * @author Dieudonné
+ * @version 1.0
+ * @see TicketStore
+ */
+public class SalesRollup {
+
+    /**
+     * The bucket sizes kept by the rollup, with the number of recent buckets of each.
+     */
+    public enum Granularity {
+        /** One bucket per hour, for the last week. */
+        HOUR(3_600L, 24 * 7),
+        /** One bucket per day, for the last quarter. */
+        DAY(86_400L, 92),
+        /** One bucket per week, for the last two years. */
+        WEEK(604_800L, 104);
+
+        private final long aSeconds;
+        private final int aRingSize;
+
+        Granularity(long pSeconds, int pRingSize) {
+            aSeconds = pSeconds;
+            aRingSize = pRingSize;
+        }
+
+        /**
+         * Gets how many recent buckets are kept.
+         *
+         * @return the ring size
+         */
+        public int getRingSize() {
+            return aRingSize;
+        }
+
+        /**
+         * Gets the bucket number of an epoch second.
+         */
+        private long bucketOf(long pEpochSecond) {
+            if (this == WEEK) {
+                // 1970-01-01 was a Thursday: shift by three days so weeks start on Monday
+                return Math.floorDiv(pEpochSecond + 3 * 86_400L, aSeconds);
+            }
+            return Math.floorDiv(pEpochSecond, aSeconds);
+        }
+    }
+
+    /**
+     * The recent buckets of one granularity.
+     */
+    private static final class Ring {
+        private final long[] aCounts;
+        private final long[] aBuckets;
+        private long aNewest = Long.MIN_VALUE;
+        private long aOlder;
+
+        private Ring(int pSize) {
+            aCounts = new long[pSize];
+            aBuckets = new long[pSize];
+        }
+
+        private void add(long pBucket, long pDelta) {
+            int size = aCounts.length;
+            if (pBucket > aNewest) {
+                advanceTo(pBucket);
+            }
+            if (pBucket <= aNewest - size) {
+                aOlder += pDelta;
+                return;
+            }
+            aCounts[slot(pBucket)] += pDelta;
+        }
+
+        /**
+         * Moves the newest bucket forward, compacting the buckets that fall off the ring.
+         */
+        private void advanceTo(long pBucket) {
+            int size = aCounts.length;
+            long first = aNewest == Long.MIN_VALUE ? pBucket - size + 1 : Math.max(aNewest + 1, pBucket - size + 1);
+            for (long bucket = first; bucket <= pBucket; bucket++) {
+                int slot = slot(bucket);
+                if (aNewest != Long.MIN_VALUE) {
+                    aOlder += aCounts[slot];
+                }
+                aCounts[slot] = 0;
+                aBuckets[slot] = bucket;
+            }
+            aNewest = pBucket;
+        }
+
+        private long get(long pBucket) {
+            if (aNewest == Long.MIN_VALUE || pBucket > aNewest || pBucket <= aNewest - aCounts.length) {
+                return 0;
+            }
+            int slot = slot(pBucket);
+            return aBuckets[slot] == pBucket ? aCounts[slot] : 0;
+        }
+
+        private int slot(long pBucket) {
+            return (int) Math.floorMod(pBucket, (long) aCounts.length);
+        }
+    }
+
+    private final Ring[] aRings = new Ring[Granularity.values().length];
+    private long aTotal;
+
+    /**
+     * Constructs an empty rollup.
+     */
+    public SalesRollup() {
+        for (Granularity granularity : Granularity.values()) {
+            aRings[granularity.ordinal()] = new Ring(granularity.getRingSize());
+        }
+    }
+
+    /**
+     * Records sold or cancelled tickets.
+     *
+     * @param pEpochSecond the purchase time as seconds of the local date-time
+     * @param pDelta       the number of tickets, negative for removed tickets
+     */
+    synchronized void record(long pEpochSecond, long pDelta) {
+        for (Granularity granularity : Granularity.values()) {
+            aRings[granularity.ordinal()].add(granularity.bucketOf(pEpochSecond), pDelta);
+        }
+        aTotal += pDelta;
+    }
+
+    /**
+     * Gets the sales of the bucket that contains a point in time.
+     *
+     * @param pGranularity the bucket size
+     * @param pAt          any time within the bucket
+     * @return the tickets sold in that bucket, or 0 if it is older than the ring
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public synchronized long getSales(Granularity pGranularity, LocalDateTime pAt) {
+        if (pGranularity == null || pAt == null) {
+            throw new IllegalArgumentException("Granularity and time cannot be null");
+        }
+        return aRings[pGranularity.ordinal()].get(pGranularity.bucketOf(pAt.toEpochSecond(ZoneOffset.UTC)));
+    }
+
+    /**
+     * Gets the sales of the buckets from the one containing pFrom to the one containing
+     * pTo, both included. Buckets older than the ring count as 0.
+     *
+     * @param pGranularity the bucket size
+     * @param pFrom        a time within the first bucket
+     * @param pTo          a time within the last bucket
+     * @return the tickets sold in the window
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public synchronized long getSales(Granularity pGranularity, LocalDateTime pFrom, LocalDateTime pTo) {
+        if (pGranularity == null || pFrom == null || pTo == null) {
+            throw new IllegalArgumentException("Granularity and times cannot be null");
+        }
+        Ring ring = aRings[pGranularity.ordinal()];
+        if (ring.aNewest == Long.MIN_VALUE) {
+            return 0;
+        }
+        long first = pGranularity.bucketOf(pFrom.toEpochSecond(ZoneOffset.UTC));
+        long last = pGranularity.bucketOf(pTo.toEpochSecond(ZoneOffset.UTC));
+        // Only buckets still in the ring can hold sales, so the loop never exceeds its size
+        first = Math.max(first, ring.aNewest - pGranularity.getRingSize() + 1);
+        last = Math.min(last, ring.aNewest);
+        long sales = 0;
+        for (long bucket = first; bucket <= last; bucket++) {
+            sales += ring.get(bucket);
+        }
+        return sales;
+    }
+
+    /**
+     * Gets the compacted sales of the buckets that have left the ring.
+     *
+     * @param pGranularity the bucket size
+     * @return the tickets sold before the oldest bucket kept
+     * @throws IllegalArgumentException if pGranularity is null
+     */
+    public synchronized long getOlderSales(Granularity pGranularity) {
+        if (pGranularity == null) {
+            throw new IllegalArgumentException("Granularity cannot be null");
+        }
+        return aRings[pGranularity.ordinal()].aOlder;
+    }
+
+    /**
+     * Gets the sales of all time.
+     *
+     * @return the number of tickets recorded
+     */
+    public synchronized long getTotalSales() {
+        return aTotal;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.integration_project.Model;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Represents seats held for a customer while they complete the payment step.
+ * Held seats are taken out of the showroom inventory but not sold yet: a hold is
+ * either confirmed into tickets, released by the customer, or expires on its own.
+ *
+ * @author Ian
+ * @version 1.0
+ * @see SeatHoldManager
+ */
+public class SeatHold {
+
+    /**
+     * The lifecycle states of a hold. Only a {@code HELD} hold can change state.
+     */
+    public enum Status {
+        /** Seats are held and waiting for confirmation */
+        HELD,
+        /** Seats were turned into tickets */
+        CONFIRMED,
+        /** Seats were given back by the customer */
+        RELEASED,
+        /** Seats were given back because the hold timed out */
+        EXPIRED
+    }
+
+    private final long holdID;
+    private final Showtime showtime;
+    private final Showroom showroom;
+    private final int[] seats;
+    private final LocalDateTime expiresAt;
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.HELD);
+    private volatile HashedTimingWheel.Timeout timeout;
+
+    /**
+     * Constructs a hold on already booked seats.
+     *
+     * @param holdID    the hold identifier
+     * @param showtime  the showtime the seats belong to
+     * @param showroom  the showroom whose seat map holds the seats
+     * @param seats     the seat indexes held
+     * @param expiresAt when the hold expires
+     */
+    SeatHold(long holdID, Showtime showtime, Showroom showroom, int[] seats, LocalDateTime expiresAt) {
+        this.holdID = holdID;
+        this.showtime = showtime;
+        this.showroom = showroom;
+        this.seats = seats;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Gets the hold identifier.
+     *
+     * @return the hold identifier
+     */
+    public long getHoldID() {
+        return holdID;
+    }
+
+    /**
+     * Gets the showtime the seats are held for.
+     *
+     * @return the showtime
+     */
+    public Showtime getShowtime() {
+        return showtime;
+    }
+
+    /**
+     * Gets the showroom the seats are held in.
+     *
+     * @return the showroom
+     */
+    public Showroom getShowroom() {
+        return showroom;
+    }
+
+    /**
+     * Gets the number of seats held.
+     *
+     * @return the number of seats
+     */
+    public int getSeatCount() {
+        return seats.length;
+    }
+
+    /**
+     * Gets the seat indexes held.
+     *
+     * @return a copy of the seat indexes
+     */
+    public int[] getSeats() {
+        return seats.clone();
+    }
+
+    /**
+     * Gets the time at which the hold expires.
+     *
+     * @return the expiry time
+     */
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Gets the current state of the hold.
+     *
+     * @return the status
+     */
+    public Status getStatus() {
+        return status.get();
+    }
+
+    int[] seats() {
+        return seats;
+    }
+
+    void setTimeout(HashedTimingWheel.Timeout timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Moves a held hold to a final state. Exactly one caller wins when several race.
+     *
+     * @param target the final state
+     * @return true if this call changed the state
+     */
+    boolean finish(Status target) {
+        if (!status.compareAndSet(Status.HELD, target)) {
+            return false;
+        }
+        HashedTimingWheel.Timeout t = timeout;
+        if (t != null && target != Status.EXPIRED) {
+            t.cancel();
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "Hold " + holdID + " - " + seats.length + " seat(s) for " + showtime + " until " + expiresAt.toLocalTime();
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.integration_project.Model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <h1>SeatHoldManager</h1>
+ * The SeatHoldManager class implements the **Singleton pattern**
+ * to manage the seats held while customers are at the payment step.
+ *
+ * <p>A hold books its seats in the {@link Showroom} seat map right away, so nobody
+ * else can take them, and carries a time-to-live. On {@link #confirm(SeatHold)} the
+ * seats become {@link Ticket}s; on {@link #release(SeatHold)} or when the time-to-live
+ * runs out they go back into the inventory. Expiry is driven by one
+ * {@link HashedTimingWheel} for all holds instead of one scheduled task per hold.</p>
+ *
+ * @author Ian
+ * @version 1.0
+ * @see SeatHold
+ */
+public class SeatHoldManager {
+
+    /** Resolution of hold expiry. */
+    private static final long TICK_MILLIS = 100;
+
+    /** Buckets of the wheel: one turn covers about 51 seconds. */
+    private static final int TICKS_PER_WHEEL = 512;
+
+    private static SeatHoldManager aInstance;
+
+    private final HashedTimingWheel aTimer;
+    private final ConcurrentHashMap<Long, SeatHold> aHolds = new ConcurrentHashMap<>();
+    private final AtomicLong aNextHoldID = new AtomicLong(1);
+
+    /**
+     * Private constructor to enforce the Singleton pattern.
+     */
+    private SeatHoldManager() {
+        aTimer = new HashedTimingWheel(TICK_MILLIS, TimeUnit.MILLISECONDS, TICKS_PER_WHEEL, "seat-hold-expiry");
+    }
+
+    /**
+     * Returns the single instance of the SeatHoldManager class.
+     *
+     * @return The sole instance of the SeatHoldManager.
+     */
+    public static synchronized SeatHoldManager getInstance() {
+        if (aInstance == null) {
+            aInstance = new SeatHoldManager();
+        }
+        return aInstance;
+    }
+
+    /**
+     * Holds a number of seats for a showtime.
+     *
+     * @param pShowtime the showtime to hold seats for
+     * @param pCount    the number of seats to hold (must be greater than 0)
+     * @param pTimeToLive how long the seats stay held before going back to the inventory
+     * @return the new hold
+     * @throws IllegalArgumentException if pShowtime or pTimeToLive is null, or pCount is not greater than 0
+     * @throws IllegalStateException if not enough seats are left
+     */
+    public SeatHold hold(Showtime pShowtime, int pCount, Duration pTimeToLive) {
+        if (pShowtime == null) {
+            throw new IllegalArgumentException("Showtime cannot be null");
+        }
+        if (pTimeToLive == null || pTimeToLive.isNegative()) {
+            throw new IllegalArgumentException("Time to live must not be negative");
+        }
+        Showroom room = pShowtime.getShowroom();
+        int[] seats = room.bookSeats(pShowtime, pCount);
+
+        SeatHold hold = new SeatHold(aNextHoldID.getAndIncrement(), pShowtime, room, seats,
+                LocalDateTime.now().plus(pTimeToLive));
+        aHolds.put(hold.getHoldID(), hold);
+        hold.setTimeout(aTimer.schedule(() -> expire(hold), pTimeToLive.toMillis(), TimeUnit.MILLISECONDS));
+        return hold;
+    }
+
+    /**
+     * Turns a hold into tickets, one per held seat.
+     *
+     * @param pHold the hold to confirm
+     * @return the tickets for the held seats
+     * @throws IllegalArgumentException if pHold is null
+     * @throws IllegalStateException if the hold already expired, was released or was confirmed
+     */
+    public List<Ticket> confirm(SeatHold pHold) {
+        if (pHold == null) {
+            throw new IllegalArgumentException("Hold cannot be null");
+        }
+        if (!pHold.finish(SeatHold.Status.CONFIRMED)) {
+            throw new IllegalStateException("Hold is no longer active (" + pHold.getStatus() + ")");
+        }
+        aHolds.remove(pHold.getHoldID());
+        return createTickets(pHold.getShowtime(), pHold.getShowroom(), pHold.seats());
+    }
+
+    /**
+     * Creates one ticket per booked seat of a showtime.
+     *
+     * @param pShowtime the showtime the seats belong to
+     * @param pShowroom the showroom whose seat map holds the seats
+     * @param pSeats    the seat indexes
+     * @return the tickets, in the same order as the seats
+     */
+    static List<Ticket> createTickets(Showtime pShowtime, Showroom pShowroom, int[] pSeats) {
+        SeatMap seatMap = pShowroom.getSeatMap(pShowtime);
+        LocalDateTime purchaseTime = LocalDateTime.now();
+        TicketIdGenerator ids = TicketIdGenerator.getInstance();
+        Movie movie = pShowtime.getMovie();
+        String showtime = pShowtime.toString();
+        List<Ticket> tickets = new ArrayList<>(pSeats.length);
+        for (int seat : pSeats) {
+            // The display strings are built once and shared by every ticket of the booking
+            tickets.add(new Ticket(ids.nextId(), null, movie.getId(), pShowtime.getId(),
+                    movie.getName(), showtime, seatMap.labelOf(seat), purchaseTime));
+        }
+        return tickets;
+    }
+
+    /**
+     * Gives the seats of a hold back to the inventory.
+     *
+     * @param pHold the hold to release
+     * @return true if the hold was active and is now released, false otherwise
+     * @throws IllegalArgumentException if pHold is null
+     */
+    public boolean release(SeatHold pHold) {
+        if (pHold == null) {
+            throw new IllegalArgumentException("Hold cannot be null");
+        }
+        return finish(pHold, SeatHold.Status.RELEASED);
+    }
+
+    /**
+     * Looks up an active hold.
+     *
+     * @param pHoldID the hold identifier
+     * @return the hold, or null if it does not exist or is no longer active
+     */
+    public SeatHold getHold(long pHoldID) {
+        return aHolds.get(pHoldID);
+    }
+
+    /**
+     * Gets the number of holds currently active.
+     *
+     * @return the number of active holds
+     */
+    public int getActiveHoldCount() {
+        return aHolds.size();
+    }
+
+    private void expire(SeatHold pHold) {
+        finish(pHold, SeatHold.Status.EXPIRED);
+    }
+
+    private boolean finish(SeatHold pHold, SeatHold.Status pStatus) {
+        if (!pHold.finish(pStatus)) {
+            return false;
+        }
+        aHolds.remove(pHold.getHoldID());
+        for (int seat : pHold.seats()) {
+            pHold.getShowroom().releaseSeat(pHold.getShowtime(), seat);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.integration_project.Model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Represents the seat map of a single showtime.
+ * Keeps track of which seats are booked using one bit per seat.
+ *
+ * <p>Seats are numbered row by row: seat index {@code row * seatsPerRow + seat}.
+ * The bits live in an {@link AtomicLongArray} (64 seats per word), so booking,
+ * releasing and checking a seat are a single compare-and-set or read on one word,
+ * take constant time and never allocate. A booked-seat counter is reserved before
+ * a bit is claimed, which guarantees the map never goes past its capacity even
+ * under concurrent bookings.</p>
+ *
+ * @author Ian
+ * @version 1.0
+ * @see Showroom
+ */
+public class SeatMap {
+    private final int rows;
+    private final int seatsPerRow;
+    private final int capacity;
+    private final AtomicLongArray seats;
+    private final AtomicInteger bookedCount = new AtomicInteger();
+
+    /**
+     * Constructs an empty SeatMap for the given layout.
+     *
+     * @param capacity    the number of bookable seats (must be greater than 0)
+     * @param seatsPerRow the number of seats in each row (must be greater than 0)
+     * @throws IllegalArgumentException if capacity or seatsPerRow is not greater than 0
+     */
+    public SeatMap(int capacity, int seatsPerRow) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than zero");
+        }
+        if (seatsPerRow <= 0) {
+            throw new IllegalArgumentException("Seats per row must be greater than zero");
+        }
+        this.capacity = capacity;
+        this.seatsPerRow = seatsPerRow;
+        this.rows = (capacity + seatsPerRow - 1) / seatsPerRow;
+        this.seats = new AtomicLongArray((capacity + 63) >>> 6);
+    }
+
+    /**
+     * Gets the number of rows in this seat map.
+     *
+     * @return the number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the number of seats in each row.
+     *
+     * @return the number of seats per row
+     */
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    /**
+     * Gets the number of bookable seats.
+     *
+     * @return the capacity of this seat map
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of booked seats.
+     *
+     * @return the number of booked seats
+     */
+    public int getBookedCount() {
+        return bookedCount.get();
+    }
+
+    /**
+     * Gets the number of seats still free.
+     *
+     * @return the number of remaining seats
+     */
+    public int getRemaining() {
+        return capacity - bookedCount.get();
+    }
+
+    /**
+     * Converts a row and seat position to a seat index.
+     *
+     * @param row  the zero-based row
+     * @param seat the zero-based seat within the row
+     * @return the seat index
+     * @throws IllegalArgumentException if the position is outside the seat map
+     */
+    public int indexOf(int row, int seat) {
+        if (row < 0 || seat < 0 || seat >= seatsPerRow) {
+            throw new IllegalArgumentException("Seat " + row + "/" + seat + " does not exist");
+        }
+        int index = row * seatsPerRow + seat;
+        if (index >= capacity) {
+            throw new IllegalArgumentException("Seat " + row + "/" + seat + " does not exist");
+        }
+        return index;
+    }
+
+    /**
+     * Checks whether a seat is free.
+     *
+     * @param index the seat index
+     * @return true if the seat is not booked, false otherwise
+     * @throws IllegalArgumentException if the index is outside the seat map
+     */
+    public boolean isFree(int index) {
+        checkIndex(index);
+        return (seats.get(index >>> 6) & (1L << index)) == 0;
+    }
+
+    /**
+     * Books a specific seat.
+     *
+     * @param index the seat index
+     * @return true if the seat was booked, false if it was already taken or the map is full
+     * @throws IllegalArgumentException if the index is outside the seat map
+     */
+    public boolean book(int index) {
+        checkIndex(index);
+        if (!reserve(1)) {
+            return false;
+        }
+        if (claim(index)) {
+            return true;
+        }
+        bookedCount.decrementAndGet();
+        return false;
+    }
+
+    /**
+     * Books the first free seat.
+     *
+     * @return the index of the booked seat, or -1 if the map is full
+     */
+    public int bookAny() {
+        if (!reserve(1)) {
+            return -1;
+        }
+        return claimAny();
+    }
+
+    /**
+     * Books a number of seats in one all-or-nothing step.
+     *
+     * <p>All seats are reserved in the booked counter with a single compare-and-set,
+     * so either every seat is booked or none is, and a concurrent booking can never
+     * take seats halfway through the group.</p>
+     *
+     * @param count the number of seats to book (must be greater than 0)
+     * @return the indexes of the booked seats, or null if not enough seats are left
+     * @throws IllegalArgumentException if count is not greater than 0
+     */
+    public int[] bookAny(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Seat count must be greater than zero");
+        }
+        if (!reserve(count)) {
+            return null;
+        }
+        int[] booked = new int[count];
+        for (int i = 0; i < count; i++) {
+            booked[i] = claimAny();
+        }
+        return booked;
+    }
+
+    /**
+     * Releases a booked seat so it can be booked again.
+     *
+     * @param index the seat index
+     * @return true if the seat was booked and is now free, false if it was already free
+     * @throws IllegalArgumentException if the index is outside the seat map
+     */
+    public boolean release(int index) {
+        checkIndex(index);
+        int word = index >>> 6;
+        long mask = 1L << index;
+        while (true) {
+            long current = seats.get(word);
+            if ((current & mask) == 0) {
+                return false;
+            }
+            if (seats.compareAndSet(word, current, current & ~mask)) {
+                bookedCount.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Builds a display label for a seat, e.g. "B7" for the seventh seat of the second row.
+     *
+     * @param index the seat index
+     * @return the seat label
+     */
+    public String labelOf(int index) {
+        checkIndex(index);
+        int row = index / seatsPerRow;
+        int seat = index % seatsPerRow + 1;
+        StringBuilder label = new StringBuilder();
+        do {
+            label.insert(0, (char) ('A' + row % 26));
+            row = row / 26 - 1;
+        } while (row >= 0);
+        return label.append(seat).toString();
+    }
+
+    /**
+     * Reserves room for a number of seats in the booked counter without exceeding capacity.
+     *
+     * @param count the number of seats to reserve
+     * @return true if the seats were reserved, false if not enough seats are left
+     */
+    boolean reserve(int count) {
+        while (true) {
+            int current = bookedCount.get();
+            if (current + count > capacity) {
+                return false;
+            }
+            if (bookedCount.compareAndSet(current, current + count)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Sets the bit of a seat if it is still clear. The caller must already hold a reservation.
+     *
+     * @param index the seat index
+     * @return true if this call claimed the seat
+     */
+    boolean claim(int index) {
+        int word = index >>> 6;
+        long mask = 1L << index;
+        while (true) {
+            long current = seats.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (seats.compareAndSet(word, current, current | mask)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Claims the lowest free seat. The caller must already hold a reservation, which
+     * guarantees a free seat exists even while other threads are claiming seats.
+     *
+     * @return the index of the claimed seat
+     */
+    int claimAny() {
+        int words = seats.length();
+        while (true) {
+            for (int w = 0; w < words; w++) {
+                long current = seats.get(w);
+                long free = ~current;
+                if (w == words - 1 && (capacity & 63) != 0) {
+                    free &= (1L << (capacity & 63)) - 1;
+                }
+                while (free != 0) {
+                    long bit = Long.lowestOneBit(free);
+                    if (seats.compareAndSet(w, current, current | bit)) {
+                        return (w << 6) + Long.numberOfTrailingZeros(bit);
+                    }
+                    current = seats.get(w);
+                    free = ~current;
+                    if (w == words - 1 && (capacity & 63) != 0) {
+                        free &= (1L << (capacity & 63)) - 1;
+                    }
+                }
+            }
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= capacity) {
+            throw new IllegalArgumentException("Seat " + index + " does not exist");
+        }
+    }
+}
@@ -1,21 +1,33 @@
 package com.example.integration_project.Model;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a showroom in the theater system.
- * Encapsulates showroom information including room number and capacity.
+ * Encapsulates showroom information including room number, capacity and seat layout.
+ * 
+ * <p>The showroom also keeps the seat inventory of every showtime it hosts. Each
+ * showtime gets its own {@link SeatMap}, laid out in rows of {@code seatsPerRow}
+ * seats. Seat maps are updated with compare-and-set operations, so concurrent
+ * bookings for the same show never lose updates and never go past the room capacity.
+ * A seat map keeps the layout the room had when the showtime was first booked.</p>
  * 
  * @author Ian
  * @version 1.0
+ * @see SeatMap
  */
 public class Showroom {
+    /** Row width used when a showroom is created from its capacity only. */
+    public static final int DEFAULT_SEATS_PER_ROW = 10;
+
     private int roomNumber;
-    private int roomCapacity;
-    private final HashMap<Showtime, Integer> aBookedSeats = new HashMap<>();
+    private volatile int roomCapacity;
+    private volatile int seatsPerRow;
+    private final ConcurrentHashMap<Showtime, SeatMap> aSeatMaps = new ConcurrentHashMap<>();
 
     /**
      * Constructs a Showroom with the specified room number and capacity.
+     * Seats are laid out in rows of {@link #DEFAULT_SEATS_PER_ROW}.
      * 
      * @param roomNumber   the room number (must be greater than 0)
      * @param roomCapacity the capacity of the room (must be greater than 0)
@@ -23,17 +35,127 @@ public class Showroom {
      *                                  than 0
      */
     public Showroom(int roomNumber, int roomCapacity) {
+        this(roomNumber, roomCapacity, DEFAULT_SEATS_PER_ROW);
+    }
+
+    /**
+     * Constructs a Showroom with the specified room number, capacity and row width.
+     * 
+     * @param roomNumber   the room number (must be greater than 0)
+     * @param roomCapacity the capacity of the room (must be greater than 0)
+     * @param seatsPerRow  the number of seats in each row (must be greater than 0)
+     * @throws IllegalArgumentException if any argument is not greater than 0
+     */
+    public Showroom(int roomNumber, int roomCapacity, int seatsPerRow) {
         setRoomNumber(roomNumber);
         setRoomCapacity(roomCapacity);
+        setSeatsPerRow(seatsPerRow);
+    }
+
+    /**
+     * Gets the seat map of a showtime in this room, creating an empty one on first use.
+     * 
+     * @param st the showtime to look up
+     * @return the seat map of the showtime
+     * @throws IllegalArgumentException if st is null
+     */
+    public SeatMap getSeatMap(Showtime st) {
+        if (st == null) {
+            throw new IllegalArgumentException("Showtime must not be null");
+        }
+        return aSeatMaps.computeIfAbsent(st, k -> new SeatMap(roomCapacity, Math.min(seatsPerRow, roomCapacity)));
     }
 
+    /**
+     * Gets the number of seats already booked for a showtime in this room.
+     * 
+     * @param st the showtime to look up
+     * @return the number of booked seats, 0 if nothing was booked yet
+     */
     public int getBookedSeats(Showtime st) {
-        return aBookedSeats.getOrDefault(st, 0);
+        SeatMap seats = aSeatMaps.get(st);
+        return seats == null ? 0 : seats.getBookedCount();
+    }
+
+    /**
+     * Gets the number of seats still available for a showtime in this room.
+     * 
+     * @param st the showtime to look up
+     * @return the number of remaining seats (never negative)
+     */
+    public int getRemainingSeats(Showtime st) {
+        SeatMap seats = aSeatMaps.get(st);
+        return seats == null ? roomCapacity : seats.getRemaining();
     }
 
-    public void bookSeat(Showtime st) {
-        int count = aBookedSeats.getOrDefault(st, 0);
-        aBookedSeats.put(st, count + 1);
+    /**
+     * Atomically books the first free seat for a showtime.
+     * 
+     * <p>The booked counter is only incremented if the room still has a free seat,
+     * so concurrent callers can never oversell the showtime.</p>
+     * 
+     * @param st the showtime to book a seat for
+     * @return the number of seats remaining after this booking
+     * @throws IllegalArgumentException if st is null
+     * @throws IllegalStateException if the showtime is sold out
+     */
+    public int bookSeat(Showtime st) {
+        SeatMap seats = getSeatMap(st);
+        if (seats.bookAny() < 0) {
+            throw new IllegalStateException("Showtime is sold out");
+        }
+        return seats.getRemaining();
+    }
+
+    /**
+     * Atomically books a group of seats for a showtime.
+     * 
+     * <p>Either all requested seats are booked or none is. The seats are the first
+     * free ones in the seat map, so a group usually ends up seated together.</p>
+     * 
+     * @param st    the showtime to book seats for
+     * @param count the number of seats to book (must be greater than 0)
+     * @return the seat indexes of the booked seats
+     * @throws IllegalArgumentException if st is null or count is not greater than 0
+     * @throws IllegalStateException if fewer than count seats are left
+     */
+    public int[] bookSeats(Showtime st, int count) {
+        SeatMap seats = getSeatMap(st);
+        int[] booked = seats.bookAny(count);
+        if (booked == null) {
+            throw new IllegalStateException("Only " + seats.getRemaining() + " seats are left for this showtime");
+        }
+        return booked;
+    }
+
+    /**
+     * Atomically books a specific seat for a showtime.
+     * 
+     * @param st   the showtime to book a seat for
+     * @param row  the zero-based row of the seat
+     * @param seat the zero-based seat within the row
+     * @return the number of seats remaining after this booking
+     * @throws IllegalArgumentException if st is null or the seat does not exist
+     * @throws IllegalStateException if the seat is already taken
+     */
+    public int bookSeat(Showtime st, int row, int seat) {
+        SeatMap seats = getSeatMap(st);
+        if (!seats.book(seats.indexOf(row, seat))) {
+            throw new IllegalStateException("Seat " + seats.labelOf(seats.indexOf(row, seat)) + " is not available");
+        }
+        return seats.getRemaining();
+    }
+
+    /**
+     * Releases a booked seat of a showtime.
+     * 
+     * @param st        the showtime the seat was booked for
+     * @param seatIndex the seat index in the showtime's seat map
+     * @return true if the seat was booked and is now free, false otherwise
+     */
+    public boolean releaseSeat(Showtime st, int seatIndex) {
+        SeatMap seats = aSeatMaps.get(st);
+        return seats != null && seats.release(seatIndex);
     }
 
     /**
@@ -58,13 +180,15 @@ public class Showroom {
      * Sets the room number with validation.
      * 
      * @param roomNumber the room number to set (must be greater than 0)
-     * @throws IllegalArgumentException if roomNumber is not greater than 0
+     * @throws IllegalArgumentException if roomNumber is not greater than 0, or if the
+     *                                  showroom is in the catalog and another showroom
+     *                                  there has that number
      */
     public void setRoomNumber(int roomNumber) {
         if (roomNumber <= 0) {
             throw new IllegalArgumentException("Room number must be greater than 0");
         }
-        this.roomNumber = roomNumber;
+        ShowroomManager.renumber(this, this.roomNumber, roomNumber, () -> this.roomNumber = roomNumber);
     }
 
     /**
@@ -80,6 +204,28 @@ public class Showroom {
         this.roomCapacity = roomCapacity;
     }
 
+    /**
+     * Gets the number of seats in each row of the showroom.
+     * 
+     * @return the number of seats per row
+     */
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    /**
+     * Sets the number of seats in each row with validation.
+     * 
+     * @param seatsPerRow the row width to set (must be greater than 0)
+     * @throws IllegalArgumentException if seatsPerRow is not greater than 0
+     */
+    public void setSeatsPerRow(int seatsPerRow) {
+        if (seatsPerRow <= 0) {
+            throw new IllegalArgumentException("Seats per row must be greater than zero");
+        }
+        this.seatsPerRow = seatsPerRow;
+    }
+
     @Override
     public String toString() {
         return "Room " + roomNumber + " (Capacity: " + roomCapacity + ")";
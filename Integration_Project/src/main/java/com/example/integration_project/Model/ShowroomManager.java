@@ -3,30 +3,75 @@ package com.example.integration_project.Model;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.Arrays;
+import java.util.Collection;
+
 /**
  * Manages the collection of Showroom in the theater system.
  * Handles adding, removing, and retrieving Showroom.
+ * Room numbers are unique. Showrooms are indexed by number in an open-addressing table
+ * of primitive ints, so {@link #findByNumber(int)} answers in constant time without
+ * boxing. The index follows every change of the catalog and every renumbering
+ * through {@link Showroom#setRoomNumber(int)}.
+ * The showrooms live in a {@link CatalogStore}, so any thread can browse a snapshot of
+ * them without locking. The index is guarded by the store's monitor.
  * 
  * @author Ian
  * @version 1.0
  */
 public class ShowroomManager {
-    private static ObservableList<Showroom> Showroom;
+    private static final int INITIAL_SLOTS = 16;
+    /** Marks a free slot; room numbers are always greater than 0. */
+    private static final int FREE = 0;
+
+    private static final CatalogStore<Showroom> catalog = new CatalogStore<>();
+
+    /** The showrooms as shown by the UI, kept by an FX adapter bound to the catalog. */
+    private static final ObservableList<Showroom> Showroom = FXCollections.observableArrayList();
+
+    /** Room number of each slot, or FREE. */
+    private static int[] numbers = new int[INITIAL_SLOTS];
+    /** Showroom of each slot. */
+    private static Showroom[] rooms = new Showroom[INITIAL_SLOTS];
+    private static int indexed;
+    /** Number of showrooms left out of the index because another one has the same number. */
+    private static int unindexed;
 
     private static ShowroomManager aInstance;
 
-    public ShowroomManager() {
-        Showroom = FXCollections.observableArrayList();
+    static {
+        catalog.addListener((removed, added, snapshot) -> {
+            for (Showroom room : removed) {
+                unindex(room, room.getRoomNumber());
+            }
+            for (Showroom room : added) {
+                index(room, room.getRoomNumber());
+            }
+        });
+    }
+
+    private ShowroomManager() {
     }
 
-    public static ShowroomManager getShowroomManagerInstance() {
+    public static synchronized ShowroomManager getShowroomManagerInstance() {
         if (aInstance == null) {
             aInstance = new ShowroomManager();
         }
         return aInstance;
     }
+
+    /**
+     * Gets the catalog of showrooms, which any thread may read.
+     * 
+     * @return the store holding the showrooms
+     */
+    public static CatalogStore<Showroom> getCatalog() {
+        return catalog;
+    }
+
     /**
-     * Gets the list of all Showroom.
+     * Gets the list of all Showroom as shown by the UI. It mirrors the catalog once an
+     * FX adapter is bound to it and may only be used on the FX thread.
      * 
      * @return an ObservableList containing all Showroom
      */
@@ -38,13 +83,18 @@ public class ShowroomManager {
      * Adds a showroom to the collection.
      * 
      * @param showroom the showroom to add
-     * @throws IllegalArgumentException if showroom is null
+     * @throws IllegalArgumentException if showroom is null or its number is already taken
      */
     public void addShowroom(Showroom showroom) {
         if (showroom == null) {
             throw new IllegalArgumentException("Showroom cannot be null");
         }
-        Showroom.add(showroom);
+        synchronized (catalog) {
+            if (lookup(showroom.getRoomNumber()) != null) {
+                throw new IllegalArgumentException("Room " + showroom.getRoomNumber() + " already exists.");
+            }
+            catalog.add(showroom);
+        }
     }
 
     /**
@@ -57,6 +107,218 @@ public class ShowroomManager {
         if (showroom == null) {
             throw new IllegalArgumentException("Showroom cannot be null");
         }
-        Showroom.remove(showroom);
+        catalog.remove(showroom);
+    }
+
+    /**
+     * Adds several showrooms as one change, so the UI updates once.
+     * 
+     * @param newRooms the showrooms to add, in order
+     * @throws IllegalArgumentException if newRooms is null or holds a null showroom, or
+     *                                  if a number is already taken or repeats in the
+     *                                  batch; no showroom is added then
+     */
+    public void addShowrooms(Collection<Showroom> newRooms) {
+        synchronized (catalog) {
+            checkNumbers(newRooms, true);
+            catalog.addAll(newRooms);
+        }
+    }
+
+    /**
+     * Removes several showrooms as one change, so the UI updates once.
+     * 
+     * @param oldRooms the showrooms to remove
+     * @throws IllegalArgumentException if oldRooms is null
+     */
+    public void removeShowrooms(Collection<Showroom> oldRooms) {
+        if (oldRooms == null) {
+            throw new IllegalArgumentException("Showrooms cannot be null");
+        }
+        catalog.removeAll(oldRooms);
+    }
+
+    /**
+     * Replaces all showrooms as one change, so the UI updates once.
+     * 
+     * @param newRooms the new showrooms, in order
+     * @throws IllegalArgumentException if newRooms is null or holds a null showroom, or
+     *                                  if a number repeats in it; nothing changes then
+     */
+    public void replaceShowrooms(Collection<Showroom> newRooms) {
+        synchronized (catalog) {
+            checkNumbers(newRooms, false);
+            catalog.setAll(newRooms);
+        }
+    }
+
+    /**
+     * Finds a showroom by number in constant time.
+     *
+     * @param roomNumber the room number
+     * @return the showroom with that number, or null if there is none
+     */
+    public Showroom findByNumber(int roomNumber) {
+        synchronized (catalog) {
+            return lookup(roomNumber);
+        }
+    }
+
+    /**
+     * Renumbers a showroom and keeps the index up to date. Called by
+     * {@link Showroom#setRoomNumber(int)}, which passes the assignment of the new number.
+     *
+     * @param room      the showroom being renumbered
+     * @param oldNumber its current number, or 0 while it is being constructed
+     * @param newNumber its new number
+     * @param renumber  sets the new number on the showroom
+     * @throws IllegalArgumentException if the showroom is in the catalog and another
+     *                                  showroom there already has the new number
+     */
+    static void renumber(Showroom room, int oldNumber, int newNumber, Runnable renumber) {
+        synchronized (catalog) {
+            if (oldNumber == FREE || oldNumber == newNumber || !inCatalog(room, oldNumber)) {
+                renumber.run();
+                return;
+            }
+            if (lookup(newNumber) != null) {
+                throw new IllegalArgumentException("Room " + newNumber + " already exists.");
+            }
+            unindex(room, oldNumber);
+            renumber.run();
+            index(room, newNumber);
+        }
+    }
+
+    /**
+     * Checks a batch of showrooms before it goes into the catalog.
+     *
+     * @param againstCatalog whether the numbers must also be free in the catalog
+     */
+    private static void checkNumbers(Collection<Showroom> batch, boolean againstCatalog) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Showrooms cannot be null");
+        }
+        int[] batchNumbers = new int[batch.size()];
+        int count = 0;
+        for (Showroom room : batch) {
+            if (room == null) {
+                throw new IllegalArgumentException("Showroom cannot be null");
+            }
+            if (againstCatalog && lookup(room.getRoomNumber()) != null) {
+                throw new IllegalArgumentException("Room " + room.getRoomNumber() + " already exists.");
+            }
+            batchNumbers[count++] = room.getRoomNumber();
+        }
+        // Sorted, a repeated number sits next to itself
+        Arrays.sort(batchNumbers, 0, count);
+        for (int i = 1; i < count; i++) {
+            if (batchNumbers[i] == batchNumbers[i - 1]) {
+                throw new IllegalArgumentException("Room " + batchNumbers[i] + " already exists.");
+            }
+        }
+    }
+
+    private static Showroom lookup(int number) {
+        int slot = slotOf(number);
+        return numbers[slot] == number ? rooms[slot] : null;
+    }
+
+    private static boolean inCatalog(Showroom room, int number) {
+        int slot = slotOf(number);
+        if (numbers[slot] == number && rooms[slot] == room) {
+            return true;
+        }
+        if (unindexed > 0) {
+            for (Showroom r : catalog.snapshot()) {
+                if (r == room) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void index(Showroom room, int number) {
+        int slot = slotOf(number);
+        if (numbers[slot] == number) {
+            unindexed++;
+            return;
+        }
+        numbers[slot] = number;
+        rooms[slot] = room;
+        // Keep the table at most half full
+        if (++indexed * 2 > numbers.length) {
+            rehash(numbers.length * 2);
+        }
+    }
+
+    /**
+     * Takes a showroom out of the index. If another showroom has the same number, it
+     * takes its place.
+     */
+    private static void unindex(Showroom room, int number) {
+        int slot = slotOf(number);
+        if (numbers[slot] != number || rooms[slot] != room) {
+            unindexed--;
+            return;
+        }
+        if (unindexed > 0) {
+            for (Showroom r : catalog.snapshot()) {
+                if (r != room && r.getRoomNumber() == number) {
+                    rooms[slot] = r;
+                    unindexed--;
+                    return;
+                }
+            }
+        }
+        // Backward-shift deletion: pull later entries of the probe run into the gap
+        int mask = numbers.length - 1;
+        int gap = slot;
+        for (int next = (gap + 1) & mask; numbers[next] != FREE; next = (next + 1) & mask) {
+            int home = hash(numbers[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                numbers[gap] = numbers[next];
+                rooms[gap] = rooms[next];
+                gap = next;
+            }
+        }
+        numbers[gap] = FREE;
+        rooms[gap] = null;
+        indexed--;
+    }
+
+    /**
+     * Finds the slot holding a number, or the free slot where it would go.
+     */
+    private static int slotOf(int number) {
+        int mask = numbers.length - 1;
+        int slot = hash(number) & mask;
+        while (numbers[slot] != FREE && numbers[slot] != number) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static void rehash(int slots) {
+        int[] oldNumbers = numbers;
+        Showroom[] oldRooms = rooms;
+        numbers = new int[slots];
+        rooms = new Showroom[slots];
+        for (int i = 0; i < oldNumbers.length; i++) {
+            if (oldNumbers[i] != FREE) {
+                int slot = slotOf(oldNumbers[i]);
+                numbers[slot] = oldNumbers[i];
+                rooms[slot] = oldRooms[i];
+            }
+        }
+    }
+
+    /**
+     * Spreads consecutive room numbers over the table.
+     */
+    private static int hash(int number) {
+        int h = number * 0x9E3779B9;
+        return h ^ (h >>> 16);
     }
 }
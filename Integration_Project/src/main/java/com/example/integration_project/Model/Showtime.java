@@ -4,15 +4,22 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents a showtime (screening) in the theater system.
  * Encapsulates information about when a movie is shown in a specific showroom.
+ * Every showtime gets a compact numeric id that never changes, even when it is edited.
+ * The id only lives as long as the process: the catalog is rebuilt on every start, so
+ * the id must not be written anywhere that outlives the run.
  * 
  * @author Ian
  * @version 1.0
  */
 public class Showtime {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+
+    private final int id = NEXT_ID.getAndIncrement();
     private LocalDateTime showtime;
     private Movie movie;
     private Showroom showroom;
@@ -32,6 +39,15 @@ public class Showtime {
         setShowroom(showroom);
     }
 
+    /**
+     * Gets the numeric id of the showtime.
+     * 
+     * @return the id, unique among the showtimes of this run and always greater than 0
+     */
+    public int getId() {
+        return id;
+    }
+
     /**
      * Gets the date and time of the showtime.
      * 
@@ -77,39 +93,67 @@ public class Showtime {
      * Sets the movie for this showtime with validation.
      * 
      * @param movie the movie to set
-     * @throws IllegalArgumentException if movie is null
+     * @throws IllegalArgumentException if movie is null, or if the showtime is scheduled
+     *                                  and would overlap another showing in its room
      */
     public void setMovie(Movie movie) {
         if (movie == null) {
             throw new IllegalArgumentException("Movie must not be null");
         }
-        this.movie = movie;
+        ShowtimeManager.move(this, movie, this.showtime, this.showroom, () -> this.movie = movie);
     }
 
     /**
      * Sets the date and time of the showtime with validation.
      * 
      * @param showtime the date and time to set (must be in the future)
-     * @throws IllegalArgumentException if showtime is in the past
+     * @throws IllegalArgumentException if showtime is in the past, or if the showtime is
+     *                                  scheduled and would overlap another showing in its room
      */
     public void setShowtime(LocalDateTime showtime) {
         if (showtime.isBefore(LocalDateTime.now())) {
             throw new IllegalArgumentException("Showtime must be in the future");
         }
-        this.showtime = showtime;
+        ShowtimeManager.move(this, this.movie, showtime, this.showroom, () -> this.showtime = showtime);
     }
 
     /**
      * Sets the showroom for this showtime with validation.
      * 
      * @param showroom the showroom to set
-     * @throws IllegalArgumentException if showroom is null
+     * @throws IllegalArgumentException if showroom is null, or if the showtime is scheduled
+     *                                  and would overlap another showing in that room
      */
     public void setShowroom(Showroom showroom) {
         if (showroom == null) {
             throw new IllegalArgumentException("Showroom must not be null");
         }
-        this.showroom = showroom;
+        ShowtimeManager.move(this, this.movie, this.showtime, showroom, () -> this.showroom = showroom);
+    }
+
+    /**
+     * Changes the movie, start time and showroom together, so a showtime can move to a
+     * slot that only becomes free once all three have changed.
+     * 
+     * @param movie    the movie to set
+     * @param showtime the date and time to set (must be in the future)
+     * @param showroom the showroom to set
+     * @throws IllegalArgumentException if an argument is null, if showtime is in the past,
+     *                                  or if the showtime is scheduled and would overlap
+     *                                  another showing; nothing is changed then
+     */
+    public void reschedule(Movie movie, LocalDateTime showtime, Showroom showroom) {
+        if (movie == null || showtime == null || showroom == null) {
+            throw new IllegalArgumentException("Movie, showtime and showroom must not be null");
+        }
+        if (showtime.isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Showtime must be in the future");
+        }
+        ShowtimeManager.move(this, movie, showtime, showroom, () -> {
+            this.movie = movie;
+            this.showtime = showtime;
+            this.showroom = showroom;
+        });
     }
 
     public void setDate(LocalDate date) {
@@ -3,23 +3,101 @@ package com.example.integration_project.Model;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
 /**
  * Manages the collection of Showtime in the theater system.
  * Handles adding, removing, and retrieving Showtime.
+ * The showtimes of each movie are also indexed in start order, so
+ * {@link #getShowtimes(Movie)} costs only the number of showtimes of that movie. The
+ * index follows every change of the catalog and every edit of a showtime's movie
+ * or start time.
+ * Each showroom's schedule is kept in start order as well. A showing holds its room for
+ * the movie's screen time, and because the showings of a room never overlap, a new
+ * showing only has to be checked against the showings just before and just after it:
+ * adding or moving a showtime checks for conflicts in O(log n).
+ * Showtimes added straight to the catalog store are indexed but not checked.
+ * A third index orders all showtimes by start time and answers time-range queries in
+ * O(log n) plus the number of showtimes returned.
+ * The showtimes live in a {@link CatalogStore}, so any thread can browse a snapshot of
+ * them without locking. Writers change the indexes under the store's monitor, in O(log n)
+ * per showtime. The per-movie and start-time indexes are concurrent skip lists, so the
+ * queries read them without locking and never wait for a writer or its listeners; a
+ * query running while a showtime moves may list it at its old or its new start.
  * 
  * @author Ian
  * @version 1.0
  */
 public class ShowtimeManager {
-    private static ObservableList<Showtime> showtime;
+    private static final Comparator<Showtime> START_ORDER =
+            Comparator.comparing(Showtime::getShowtime).thenComparingInt(Showtime::getId);
+
+    private static final CatalogStore<Showtime> catalog = new CatalogStore<>();
+
+    /** The showtimes as shown by the UI, kept by an FX adapter bound to the catalog. */
+    private static final ObservableList<Showtime> showtime = FXCollections.observableArrayList();
+
+    /**
+     * Orders the showtimes of the indexes by start time and then by id. The start time is
+     * copied into the key, so editing a showtime cannot unsort an index it is in.
+     */
+    private record StartKey(LocalDateTime start, int id) implements Comparable<StartKey> {
+        static StartKey of(Showtime st) {
+            return new StartKey(st.getShowtime(), st.getId());
+        }
+
+        /** The key before every showtime starting at or after a time (ids are positive). */
+        static StartKey from(LocalDateTime time) {
+            return new StartKey(time, 0);
+        }
+
+        @Override
+        public int compareTo(StartKey other) {
+            int byStart = start.compareTo(other.start);
+            return byStart != 0 ? byStart : Integer.compare(id, other.id);
+        }
+    }
+
+    /** Showtimes of each movie, sorted by start time and then by id. */
+    private static final Map<Movie, ConcurrentSkipListMap<StartKey, Showtime>> byMovie = new ConcurrentHashMap<>();
+
+    /** Showtimes of each showroom by start time. */
+    private static final Map<Showroom, NavigableMap<LocalDateTime, Showtime>> byRoom = new HashMap<>();
+
+    /** Showtimes by start time; those starting at the same time are sorted by id. */
+    private static final ConcurrentSkipListMap<StartKey, Showtime> byStart = new ConcurrentSkipListMap<>();
 
     private static ShowtimeManager aInstance;
 
-    public ShowtimeManager() {
-        showtime = FXCollections.observableArrayList();
+    static {
+        catalog.addListener((removed, added, snapshot) -> {
+            for (Showtime st : removed) {
+                unindex(st);
+            }
+            for (Showtime st : added) {
+                index(st);
+            }
+        });
+    }
+
+    private ShowtimeManager() {
     }
 
-    public static ShowtimeManager getShowtimeManagerInstance() {
+    public static synchronized ShowtimeManager getShowtimeManagerInstance() {
         if (aInstance == null) {
             aInstance = new ShowtimeManager();
         }
@@ -27,7 +105,17 @@ public class ShowtimeManager {
     }
 
     /**
-     * Gets the list of all Showtime.
+     * Gets the catalog of showtimes, which any thread may read.
+     * 
+     * @return the store holding the showtimes
+     */
+    public static CatalogStore<Showtime> getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Gets the list of all Showtime as shown by the UI. It mirrors the catalog once an
+     * FX adapter is bound to it and may only be used on the FX thread.
      * 
      * @return an ObservableList containing all Showtime
      */
@@ -39,13 +127,17 @@ public class ShowtimeManager {
      * Adds a showtime to the collection.
      * 
      * @param showtime the showtime to add
-     * @throws IllegalArgumentException if showtime is null
+     * @throws IllegalArgumentException if showtime is null, or if it overlaps another
+     *                                  showing in its showroom
      */
     public void addShowtime(Showtime showtime) {
         if (showtime == null) {
             throw new IllegalArgumentException("Showtime cannot be null");
         }
-        ShowtimeManager.showtime.add(showtime);
+        synchronized (catalog) {
+            checkConflict(showtime.getMovie(), showtime.getShowroom(), showtime.getShowtime(), null);
+            catalog.add(showtime);
+        }
     }
 
     /**
@@ -58,6 +150,270 @@ public class ShowtimeManager {
         if (showtime == null) {
             throw new IllegalArgumentException("Showtime cannot be null");
         }
-        ShowtimeManager.showtime.remove(showtime);
+        catalog.remove(showtime);
+    }
+
+    /**
+     * Adds several showtimes as one change, so the UI updates once.
+     * 
+     * @param newShowtimes the showtimes to add, in order
+     * @throws IllegalArgumentException if newShowtimes is null or holds a null showtime,
+     *                                  or if a showtime overlaps another showing of the
+     *                                  catalog or of the batch; none is added then
+     */
+    public void addShowtimes(Collection<Showtime> newShowtimes) {
+        synchronized (catalog) {
+            checkSchedule(newShowtimes, true);
+            catalog.addAll(newShowtimes);
+        }
+    }
+
+    /**
+     * Removes several showtimes as one change, so the UI updates once.
+     * 
+     * @param oldShowtimes the showtimes to remove
+     * @throws IllegalArgumentException if oldShowtimes is null
+     */
+    public void removeShowtimes(Collection<Showtime> oldShowtimes) {
+        if (oldShowtimes == null) {
+            throw new IllegalArgumentException("Showtimes cannot be null");
+        }
+        catalog.removeAll(oldShowtimes);
+    }
+
+    /**
+     * Replaces all showtimes as one change, so the UI updates once.
+     * 
+     * @param newShowtimes the new showtimes, in order
+     * @throws IllegalArgumentException if newShowtimes is null or holds a null showtime,
+     *                                  or if two of them overlap in a showroom; nothing
+     *                                  changes then
+     */
+    public void replaceShowtimes(Collection<Showtime> newShowtimes) {
+        synchronized (catalog) {
+            checkSchedule(newShowtimes, false);
+            catalog.setAll(newShowtimes);
+        }
+    }
+
+    /**
+     * Gets the showtimes of a movie.
+     *
+     * @param movie the movie to look up
+     * @return an immutable list of its showtimes sorted by start time, empty if it has none
+     * @throws IllegalArgumentException if movie is null
+     */
+    public List<Showtime> getShowtimes(Movie movie) {
+        if (movie == null) {
+            throw new IllegalArgumentException("Movie cannot be null");
+        }
+        NavigableMap<StartKey, Showtime> showtimes = byMovie.get(movie);
+        return showtimes == null ? List.of() : List.copyOf(showtimes.values());
+    }
+
+    /**
+     * Gets the showtimes that start within a time range.
+     *
+     * @param from the start of the range, inclusive
+     * @param to   the end of the range, exclusive
+     * @return an immutable list of the showtimes starting in the range, sorted by start time
+     * @throws IllegalArgumentException if from or to is null, or if to is before from
+     */
+    public List<Showtime> getShowtimesBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Range cannot be null");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Range must not end before it starts");
+        }
+        return List.copyOf(byStart.subMap(StartKey.from(from), StartKey.from(to)).values());
+    }
+
+    /**
+     * Gets the showtimes of a day.
+     *
+     * @param date the day to list
+     * @return an immutable list of the showtimes starting that day, sorted by start time
+     * @throws IllegalArgumentException if date is null
+     */
+    public List<Showtime> getShowtimesOn(LocalDate date) {
+        if (date == null) {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+        return getShowtimesBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Gets the next showtimes to start.
+     *
+     * @param from  the time to look from, inclusive
+     * @param count the maximum number of showtimes to return
+     * @return an immutable list of up to count showtimes starting at or after from, sorted
+     *         by start time
+     * @throws IllegalArgumentException if from is null or count is negative
+     */
+    public List<Showtime> getNextShowtimes(LocalDateTime from, int count) {
+        if (from == null) {
+            throw new IllegalArgumentException("Time cannot be null");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be negative");
+        }
+        List<Showtime> result = new ArrayList<>(Math.min(count, 64));
+        for (Iterator<Showtime> next = byStart.tailMap(StartKey.from(from)).values().iterator();
+                result.size() < count && next.hasNext(); ) {
+            result.add(next.next());
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Moves a showtime to a new schedule and keeps the indexes up to date. Called by the
+     * setters of {@link Showtime}, which pass the assignment of the new values.
+     *
+     * @param st    the showtime about to change
+     * @param movie its new movie
+     * @param start its new start time
+     * @param room  its new showroom
+     * @param move  sets the new values on the showtime
+     * @throws IllegalArgumentException if the showtime is in the catalog and the new
+     *                                  schedule overlaps another showing in the room
+     */
+    static void move(Showtime st, Movie movie, LocalDateTime start, Showroom room, Runnable move) {
+        synchronized (catalog) {
+            if (!isIndexed(st)) {
+                move.run();
+                return;
+            }
+            checkConflict(movie, room, start, st);
+            unindex(st);
+            move.run();
+            index(st);
+        }
+    }
+
+    /**
+     * Changes the runtime of a movie once its showings are known to still fit their
+     * rooms. Called by {@link Movie#setRuntime(Duration)} and {@link Movie#update(String, Duration)},
+     * which pass the assignment.
+     *
+     * @param movie   the movie about to change
+     * @param runtime its new runtime
+     * @param change  sets the new runtime on the movie
+     * @throws IllegalArgumentException if a showing would overlap the next one in its room
+     */
+    static void changeRuntime(Movie movie, Duration runtime, Runnable change) {
+        synchronized (catalog) {
+            Duration screenTime = runtime.plus(Movie.CLEANING_BUFFER);
+            NavigableMap<StartKey, Showtime> showtimes = byMovie.get(movie);
+            for (Showtime st : showtimes == null ? List.<Showtime>of() : showtimes.values()) {
+                Map.Entry<LocalDateTime, Showtime> next = byRoom.get(st.getShowroom()).higherEntry(st.getShowtime());
+                if (next != null && st.getShowtime().plus(screenTime).isAfter(next.getKey())) {
+                    throw new IllegalArgumentException("Showroom " + st.getShowroom().getRoomNumber()
+                            + " is booked for " + next.getValue() + " before " + st + " would end");
+                }
+            }
+            change.run();
+        }
+    }
+
+    /**
+     * Checks a batch of showtimes before it goes into the catalog. Within the batch, the
+     * showings of each room are sorted, and since a room's showings must not overlap,
+     * each one only has to be checked against the next.
+     *
+     * @param againstCatalog whether the showings must also fit around those of the catalog
+     */
+    private static void checkSchedule(Collection<Showtime> batch, boolean againstCatalog) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Showtimes cannot be null");
+        }
+        Map<Showroom, List<Showtime>> rooms = new HashMap<>();
+        for (Showtime st : batch) {
+            if (st == null) {
+                throw new IllegalArgumentException("Showtime cannot be null");
+            }
+            if (againstCatalog) {
+                checkConflict(st.getMovie(), st.getShowroom(), st.getShowtime(), null);
+            }
+            rooms.computeIfAbsent(st.getShowroom(), r -> new ArrayList<>()).add(st);
+        }
+        for (List<Showtime> schedule : rooms.values()) {
+            schedule.sort(START_ORDER);
+            for (int i = 1; i < schedule.size(); i++) {
+                Showtime before = schedule.get(i - 1);
+                Showtime after = schedule.get(i);
+                if (before.getShowtime().plus(before.getMovie().getScreenTime()).isAfter(after.getShowtime())) {
+                    throw new IllegalArgumentException("Showroom " + after.getShowroom().getRoomNumber()
+                            + " is already booked for " + before);
+                }
+            }
+        }
+    }
+
+    /**
+     * Throws if a showing would overlap another one in its room. Only the showing that
+     * starts at or before it and the one that starts after it can overlap it.
+     *
+     * @param ignore a showtime to leave out, being the one that moves, or null
+     */
+    private static void checkConflict(Movie movie, Showroom room, LocalDateTime start, Showtime ignore) {
+        NavigableMap<LocalDateTime, Showtime> schedule = byRoom.get(room);
+        if (schedule == null) {
+            return;
+        }
+        Showtime conflict = null;
+        Map.Entry<LocalDateTime, Showtime> before = schedule.floorEntry(start);
+        if (before != null && before.getValue() == ignore) {
+            before = schedule.lowerEntry(before.getKey());
+        }
+        if (before != null && before.getKey().plus(before.getValue().getMovie().getScreenTime()).isAfter(start)) {
+            conflict = before.getValue();
+        }
+        Map.Entry<LocalDateTime, Showtime> after = schedule.higherEntry(start);
+        if (after != null && after.getValue() == ignore) {
+            after = schedule.higherEntry(after.getKey());
+        }
+        if (conflict == null && after != null && after.getKey().isBefore(start.plus(movie.getScreenTime()))) {
+            conflict = after.getValue();
+        }
+        if (conflict != null) {
+            throw new IllegalArgumentException("Showroom " + room.getRoomNumber()
+                    + " is already booked for " + conflict);
+        }
+    }
+
+    private static boolean isIndexed(Showtime st) {
+        if (st.getMovie() == null || st.getShowtime() == null || st.getShowroom() == null) {
+            return false;
+        }
+        NavigableMap<StartKey, Showtime> showtimes = byMovie.get(st.getMovie());
+        return showtimes != null && showtimes.get(StartKey.of(st)) == st;
+    }
+
+    /**
+     * Takes a showtime out of the indexes.
+     */
+    private static void unindex(Showtime st) {
+        StartKey key = StartKey.of(st);
+        NavigableMap<StartKey, Showtime> showtimes = byMovie.get(st.getMovie());
+        if (showtimes != null) {
+            showtimes.remove(key, st);
+        }
+        NavigableMap<LocalDateTime, Showtime> schedule = byRoom.get(st.getShowroom());
+        if (schedule != null) {
+            schedule.remove(st.getShowtime(), st);
+        }
+        byStart.remove(key, st);
+    }
+
+    /**
+     * Puts a showtime in the indexes at its start-time position.
+     */
+    private static void index(Showtime st) {
+        StartKey key = StartKey.of(st);
+        byMovie.computeIfAbsent(st.getMovie(), m -> new ConcurrentSkipListMap<>()).put(key, st);
+        byRoom.computeIfAbsent(st.getShowroom(), r -> new TreeMap<>()).putIfAbsent(st.getShowtime(), st);
+        byStart.put(key, st);
     }
 }
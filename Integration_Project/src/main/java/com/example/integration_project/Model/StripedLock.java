@@ -0,0 +1,71 @@
+package com.example.integration_project.Model;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks shared out by showroom and showtime.
+ *
+ * <p>Work that has to be exclusive for one show takes the lock of that show's stripe
+ * instead of one lock for the whole theater. Shows are spread over the stripes by
+ * hash, so bookings for different rooms and showtimes almost never wait on each other,
+ * while the number of locks stays fixed no matter how many showtimes exist.</p>
+ *
+ * <p>Stripes are chosen from the identity of the showroom and showtime objects, so a
+ * show keeps its stripe when its room number or start time is edited.</p>
+ *
+ * @author Ian
+ * @version 1.0
+ * @see BookingService
+ */
+public class StripedLock {
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    /**
+     * Constructs a set of locks.
+     *
+     * @param stripes the number of locks, rounded up to a power of two (must be greater than 0)
+     * @throws IllegalArgumentException if stripes is not between 1 and 2^30
+     */
+    public StripedLock(int stripes) {
+        if (stripes <= 0 || stripes > (1 << 30)) {
+            throw new IllegalArgumentException("Stripes must be between 1 and 2^30");
+        }
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Gets the lock guarding a show.
+     *
+     * @param showroom the room of the show
+     * @param showtime the showtime
+     * @return the lock of the show's stripe
+     * @throws IllegalArgumentException if showroom or showtime is null
+     */
+    public ReentrantLock lockFor(Showroom showroom, Showtime showtime) {
+        if (showroom == null || showtime == null) {
+            throw new IllegalArgumentException("Showroom and showtime cannot be null");
+        }
+        int hash = System.identityHashCode(showroom) * 31 + System.identityHashCode(showtime);
+        // Spread the bits so neighbouring hashes land on different stripes
+        hash *= 0x9E3779B9;
+        return locks[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    /**
+     * Gets the number of locks.
+     *
+     * @return the number of stripes
+     */
+    public int getStripeCount() {
+        return locks.length;
+    }
+}
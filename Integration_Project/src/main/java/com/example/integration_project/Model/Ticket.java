@@ -8,11 +8,19 @@ import java.time.format.DateTimeFormatter;
  * @author Emmanuelle
  * This class represent a Ticket generated when a client books a Show.
  * This Ticket generated will be shown in a popup view when the client clicks on the book button.
+ * Tickets created from a {@link Showtime} also carry the numeric ids of the showtime and its movie,
+ * which reports use instead of comparing the display strings. Tickets built from strings only have id 0.
+ * Booked tickets are identified by a 64-bit number from the {@link TicketIdGenerator}; it is only
+ * turned into a display string when the ticket id is read.
  */
 public class Ticket {
+    private final long aTicketNumber;
     private final String aTicketID;
+    private final int aMovieID;
+    private final int aShowtimeID;
     private final String aMovieName;
     private final String aShowtime;
+    private final String aSeat;
     private final LocalDateTime aPurchaseDateTime;
 
     /**
@@ -24,23 +32,88 @@ public class Ticket {
      */
 
     public Ticket(String pTicketID, String pMovieName, String pShowTime, LocalDateTime pPurchaseDateTime) {
+        this(pTicketID, pMovieName, pShowTime, null, pPurchaseDateTime);
+    }
+
+    /**
+     * Creates a ticket for an assigned seat
+     * @param pTicketID The ticket unique identifier
+     * @param pMovieName The name of the movie
+     * @param pShowTime The selected showtime
+     * @param pSeat The seat label (e.g. "B7"), or null when the seat is not assigned
+     * @param pPurchaseDateTime The purchase date and time
+     */
+    public Ticket(String pTicketID, String pMovieName, String pShowTime, String pSeat, LocalDateTime pPurchaseDateTime) {
+        this(0, pTicketID, 0, 0, pMovieName, pShowTime, pSeat, pPurchaseDateTime);
+    }
+
+    /**
+     * Creates a ticket for a showtime
+     * @param pTicketID The ticket unique identifier
+     * @param pShowtime The booked showtime
+     * @param pSeat The seat label (e.g. "B7"), or null when the seat is not assigned
+     * @param pPurchaseDateTime The purchase date and time
+     */
+    public Ticket(String pTicketID, Showtime pShowtime, String pSeat, LocalDateTime pPurchaseDateTime) {
+        this(0, pTicketID, pShowtime.getMovie().getId(), pShowtime.getId(),
+                pShowtime.getMovie().getName(), pShowtime.toString(), pSeat, pPurchaseDateTime);
+    }
+
+    /**
+     * Creates a ticket for a showtime with a generated ticket number
+     * @param pTicketNumber The ticket number (see {@link TicketIdGenerator#nextId()})
+     * @param pShowtime The booked showtime
+     * @param pSeat The seat label (e.g. "B7"), or null when the seat is not assigned
+     * @param pPurchaseDateTime The purchase date and time
+     */
+    public Ticket(long pTicketNumber, Showtime pShowtime, String pSeat, LocalDateTime pPurchaseDateTime) {
+        this(pTicketNumber, null, pShowtime.getMovie().getId(), pShowtime.getId(),
+                pShowtime.getMovie().getName(), pShowtime.toString(), pSeat, pPurchaseDateTime);
+    }
+
+    /**
+     * Creates a ticket from all of its fields, e.g. to share the display strings of one booking
+     * @param pTicketNumber The generated ticket number, or 0 when the ticket has a string identifier
+     * @param pTicketID The ticket unique identifier, or null when the ticket has a number
+     * @param pMovieID The id of the movie, or 0 when unknown
+     * @param pShowtimeID The id of the showtime, or 0 when unknown
+     * @param pMovieName The name of the movie
+     * @param pShowTime The selected showtime
+     * @param pSeat The seat label, or null when the seat is not assigned
+     * @param pPurchaseDateTime The purchase date and time
+     */
+    Ticket(long pTicketNumber, String pTicketID, int pMovieID, int pShowtimeID, String pMovieName, String pShowTime,
+           String pSeat, LocalDateTime pPurchaseDateTime) {
+        aTicketNumber = pTicketNumber;
         aTicketID = pTicketID;
+        aMovieID = pMovieID;
+        aShowtimeID = pShowtimeID;
         aMovieName = pMovieName;
         aShowtime = pShowTime;
+        aSeat = pSeat;
         aPurchaseDateTime = pPurchaseDateTime;
     }
 
     public Ticket(String pTicketID, Showtime s) {
         this(
                 pTicketID,
-                s.getMovie().getName(),
-                s.getTime(),
+                s,
+                null,
                 LocalDateTime.now()
         );
     }
 
     public String getaTicketID() {
-        return aTicketID;
+        return aTicketNumber > 0 ? TicketIdGenerator.format(aTicketNumber) : aTicketID;
+    }
+    public long getTicketNumber() {
+        return aTicketNumber;
+    }
+    public int getMovieID() {
+        return aMovieID;
+    }
+    public int getShowtimeID() {
+        return aShowtimeID;
     }
     public String getName() {
         return aMovieName;
@@ -48,6 +121,9 @@ public class Ticket {
     public String getTime() {
         return aShowtime;
     }
+    public String getSeat() {
+        return aSeat;
+    }
     public LocalDateTime getaPurchaseDateTime() {
         return aPurchaseDateTime;
     }
@@ -56,9 +132,10 @@ public class Ticket {
     public String toString() {
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
         return "Ticket Confirmation\n" +
-                "Ticket ID: " + aTicketID + "\n" +
+                "Ticket ID: " + getaTicketID() + "\n" +
                 "Movie: " + aMovieName + "\n" +
                 "Showtime: " + aShowtime + "\n" +
+                (aSeat != null ? "Seat: " + aSeat + "\n" : "") +
                 "Purchased On: " + aPurchaseDateTime.format(fmt) + "\n";
     }
 }
@@ -0,0 +1,639 @@
+package com.example.integration_project.Model;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.LongConsumer;
+
+/**
+ * <h1>TicketArchive</h1>
+ * An append-only, memory-mapped store for the tickets of past showtimes.
+ *
+ * <p>Tickets are kept off the heap in segment files of fixed-width records, each mapped
+ * into memory once. A record holds the ticket id as two longs, the purchase time and
+ * int codes for the movie, showtime and seat; the distinct movies, showtimes, seats and
+ * text ids are appended once to a small dictionary file that is loaded when the archive
+ * opens. Reading a ticket or scanning a range for a report goes straight to the mapped
+ * pages, so an archive can be far larger than the heap.</p>
+ *
+ * <p>Each segment starts with a header holding its record count. Dictionary entries are
+ * made durable before the records that use them, and the count is written after the
+ * records, so a crash can only lose the batch being appended. Only then is the number of
+ * records of the showtime appended to the dictionary, and a showtime counts as archived
+ * once that number is durable: a crash before it leaves the showtime unarchived, so its
+ * journaled tickets are restored rather than lost. Showtimes are identified by room
+ * number and start time, so {@link #isArchived(Showtime)} still answers after a restart,
+ * when the showtime objects are new. Movie and showtime ids are only valid for one run,
+ * so they are not stored: archived tickets come back with the names and labels alone.</p>
+ *
+ * <p>Appends are serialized; reads may run on any thread concurrently with them.</p>
+ *
+ * @author Dieudonné
+ * @version 1.0
+ * @see TicketManager#archiveBefore(LocalDateTime)
+ */
+public class TicketArchive implements AutoCloseable {
+
+    /** Records per segment file. */
+    public static final int SEGMENT_RECORDS = 1 << 20;
+
+    /** Bytes per archived ticket. */
+    public static final int RECORD_BYTES = 40;
+
+    private static final int MAGIC = 0x544B4131; // "TKA1"
+    private static final int HEADER_BYTES = 16;
+    private static final int COUNT_OFFSET = 8;
+
+    /** Bytes of a dictionary entry holding the committed record count of a showtime. */
+    private static final int COUNT_ENTRY_BYTES = 1 + 4 + 4 + 8;
+
+    private static final int ID_HIGH = 0;
+    private static final int ID_LOW = 8;
+    private static final int PURCHASED = 16;
+    private static final int MOVIE = 24;
+    private static final int SHOWTIME = 28;
+    private static final int SEAT = 32;
+
+    /** Upper id word marking a ticket number, as in {@link TicketStore}. */
+    private static final long NUMBERED = -1L;
+
+    private static final byte KIND_MOVIE = 1;
+    private static final byte KIND_SHOWTIME = 2;
+    private static final byte KIND_SEAT = 3;
+    private static final byte KIND_ID = 4;
+    private static final byte KIND_COUNT = 5;
+
+    /**
+     * A movie as stored in the dictionary.
+     */
+    private record MovieEntry(String name) {
+    }
+
+    /**
+     * A showtime as stored in the dictionary.
+     */
+    private record ShowtimeEntry(String label, int roomNumber, long start) {
+    }
+
+    /**
+     * Identifies a showtime across restarts.
+     */
+    private record ShowKey(int roomNumber, long start) {
+    }
+
+    /**
+     * The values of one dictionary kind, by code.
+     */
+    private static final class Entries<T> {
+        private final List<T> aValues = new ArrayList<>();
+        private final Map<T, Integer> aCodes = new HashMap<>();
+
+        private int add(T pValue) {
+            aValues.add(pValue);
+            aCodes.put(pValue, aValues.size() - 1);
+            return aValues.size() - 1;
+        }
+    }
+
+    private final Path aDirectory;
+    private final FileChannel aDictionary;
+    private final Entries<MovieEntry> aMovies = new Entries<>();
+    private final Entries<ShowtimeEntry> aShowtimes = new Entries<>();
+    private final Entries<String> aSeats = new Entries<>();
+    private final Entries<String> aIDs = new Entries<>();
+    private final Map<ShowKey, Integer> aShowtimeCodes = new HashMap<>();
+    private final Map<Integer, Long> aCommitted = new HashMap<>();
+    private final List<FileChannel> aChannels = new ArrayList<>();
+    private volatile MappedByteBuffer[] aSegments = new MappedByteBuffer[0];
+    private volatile long aSize;
+
+    /**
+     * Opens the archive in a directory, creating it if needed.
+     *
+     * @param pDirectory the directory holding the dictionary and segment files
+     * @throws IOException if the archive cannot be opened or is corrupt
+     * @throws IllegalArgumentException if pDirectory is null
+     */
+    public TicketArchive(Path pDirectory) throws IOException {
+        if (pDirectory == null) {
+            throw new IllegalArgumentException("Directory cannot be null");
+        }
+        aDirectory = Files.createDirectories(pDirectory);
+        aDictionary = FileChannel.open(aDirectory.resolve("dictionary.dat"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            loadDictionary();
+            long size = 0;
+            for (int segment = 0; Files.exists(segmentPath(segment)); segment++) {
+                MappedByteBuffer buffer = mapSegment(segment);
+                if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != RECORD_BYTES) {
+                    throw new IOException("Not a ticket archive segment: " + segmentPath(segment));
+                }
+                size += buffer.getLong(COUNT_OFFSET);
+            }
+            aSize = size;
+        } catch (IOException | RuntimeException e) {
+            try {
+                closeChannels();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of archived tickets.
+     *
+     * @return the number of tickets
+     */
+    public long size() {
+        return aSize;
+    }
+
+    /**
+     * Reads an archived ticket.
+     *
+     * @param pIndex the position of the ticket, in archiving order
+     * @return a new ticket object with the archived data; its movie and showtime ids are 0
+     * @throws IndexOutOfBoundsException if pIndex is not below {@link #size()}
+     */
+    public Ticket get(long pIndex) {
+        if (pIndex < 0 || pIndex >= aSize) {
+            throw new IndexOutOfBoundsException("Index " + pIndex + " out of bounds for size " + aSize);
+        }
+        MappedByteBuffer segment = aSegments[(int) (pIndex / SEGMENT_RECORDS)];
+        int offset = HEADER_BYTES + (int) (pIndex % SEGMENT_RECORDS) * RECORD_BYTES;
+        long high = segment.getLong(offset + ID_HIGH);
+        long low = segment.getLong(offset + ID_LOW);
+        long purchased = segment.getLong(offset + PURCHASED);
+        int seat = segment.getInt(offset + SEAT);
+        MovieEntry movie;
+        ShowtimeEntry showtime;
+        String seatLabel;
+        String ticketID = null;
+        synchronized (this) {
+            movie = aMovies.aValues.get(segment.getInt(offset + MOVIE));
+            showtime = aShowtimes.aValues.get(segment.getInt(offset + SHOWTIME));
+            seatLabel = seat < 0 ? null : aSeats.aValues.get(seat);
+            if (high == 0 && low >= 0) {
+                ticketID = aIDs.aValues.get((int) low);
+            }
+        }
+        long number = high == NUMBERED ? low : 0;
+        if (high != 0 && high != NUMBERED) {
+            ticketID = new UUID(high, low).toString();
+        }
+        return new Ticket(number, ticketID, 0, 0, movie.name(), showtime.label(), seatLabel,
+                purchased == TicketStore.NO_TIME ? null : LocalDateTime.ofEpochSecond(purchased, 0, ZoneOffset.UTC));
+    }
+
+    /**
+     * Tells if the tickets of a showtime were already archived.
+     *
+     * @param pShowtime the showtime
+     * @return true if the archive holds committed tickets of a showtime with the same room
+     *         and start time
+     * @throws IllegalArgumentException if pShowtime is null
+     */
+    public synchronized boolean isArchived(Showtime pShowtime) {
+        if (pShowtime == null) {
+            throw new IllegalArgumentException("Showtime cannot be null");
+        }
+        Integer code = aShowtimeCodes.get(showKey(pShowtime));
+        return code != null && aCommitted.getOrDefault(code, 0L) > 0;
+    }
+
+    /**
+     * Appends the tickets of a showtime and makes them durable. Tickets the archive already
+     * holds for the showtime, by ticket id, are skipped, so archiving the same tickets again
+     * (e.g. sample tickets loaded on every start) never counts them twice.
+     *
+     * @param pShowtime the showtime the tickets are for
+     * @param pTickets  tickets of the showtime
+     * @return the number of tickets appended
+     * @throws IOException if the archive cannot be written; the archive is then closed
+     * @throws IllegalArgumentException if an argument or a ticket is null
+     * @throws IllegalStateException if the archive is closed
+     */
+    public int append(Showtime pShowtime, List<Ticket> pTickets) throws IOException {
+        return append(pShowtime, pTickets, null);
+    }
+
+    /**
+     * Appends the tickets of a showtime that the archive does not hold yet.
+     *
+     * @param pSkipped receives the ids of the tickets that were already archived, may be null
+     */
+    synchronized int append(Showtime pShowtime, List<Ticket> pTickets, Set<String> pSkipped) throws IOException {
+        if (pShowtime == null || pTickets == null) {
+            throw new IllegalArgumentException("Showtime and tickets cannot be null");
+        }
+        if (!aDictionary.isOpen()) {
+            throw new IllegalStateException("Archive is closed");
+        }
+        for (Ticket ticket : pTickets) {
+            if (ticket == null) {
+                throw new IllegalArgumentException("Tickets cannot be null");
+            }
+        }
+        if (pTickets.isEmpty()) {
+            return 0;
+        }
+        ShowKey key = showKey(pShowtime);
+        try {
+            List<Ticket> fresh = pTickets;
+            Integer code = aShowtimeCodes.get(key);
+            if (code != null) {
+                // Seen before, so some of these tickets may be archived already. The scan
+                // only happens when a showtime comes back, not on its first archiving
+                Set<String> archived = new HashSet<>();
+                long found = collectTicketIDs(code, archived);
+                if (found > aCommitted.getOrDefault(code, 0L)) {
+                    // A crash cut off the count after the records were committed
+                    commitCount(code, found);
+                }
+                fresh = new ArrayList<>(pTickets.size());
+                for (Ticket ticket : pTickets) {
+                    String ticketID = ticket.getaTicketID();
+                    if (ticketID != null && archived.contains(ticketID)) {
+                        if (pSkipped != null) {
+                            pSkipped.add(ticketID);
+                        }
+                    } else {
+                        fresh.add(ticket);
+                    }
+                }
+                if (fresh.isEmpty()) {
+                    return 0;
+                }
+            }
+            return write(key, pShowtime, fresh);
+        } catch (IOException e) {
+            // The dictionary in memory may now be ahead of the file: stop accepting appends
+            close();
+            throw e;
+        }
+    }
+
+    private int write(ShowKey pKey, Showtime pShowtime, List<Ticket> pTickets) throws IOException {
+        // Encode first: new dictionary entries must be durable before any record refers to them
+        ByteBuffer entries = ByteBuffer.allocate(1024);
+        Integer showtimeCode = aShowtimeCodes.get(pKey);
+        long[] rows = new long[pTickets.size() * 5];
+        for (int i = 0; i < pTickets.size(); i++) {
+            Ticket ticket = pTickets.get(i);
+            if (showtimeCode == null) {
+                ShowtimeEntry showtime = new ShowtimeEntry(ticket.getTime(), pShowtime.getShowroom().getRoomNumber(),
+                        pShowtime.getShowtime().toEpochSecond(ZoneOffset.UTC));
+                entries = putEntry(entries, KIND_SHOWTIME, 0, showtime.label(), showtime.roomNumber(),
+                        showtime.start());
+                showtimeCode = aShowtimes.add(showtime);
+                aShowtimeCodes.put(pKey, showtimeCode);
+            }
+            long high;
+            long low;
+            UUID uuid = ticket.getTicketNumber() > 0 ? null : asUUID(ticket.getaTicketID());
+            if (ticket.getTicketNumber() > 0) {
+                high = NUMBERED;
+                low = ticket.getTicketNumber();
+            } else if (uuid != null) {
+                high = uuid.getMostSignificantBits();
+                low = uuid.getLeastSignificantBits();
+            } else if (ticket.getaTicketID() == null) {
+                high = 0;
+                low = -1;
+            } else {
+                high = 0;
+                Integer code = aIDs.aCodes.get(ticket.getaTicketID());
+                if (code == null) {
+                    entries = putEntry(entries, KIND_ID, 0, ticket.getaTicketID(), 0, 0);
+                    code = aIDs.add(ticket.getaTicketID());
+                }
+                low = code;
+            }
+            MovieEntry movie = new MovieEntry(ticket.getName());
+            Integer movieCode = aMovies.aCodes.get(movie);
+            if (movieCode == null) {
+                entries = putEntry(entries, KIND_MOVIE, 0, movie.name(), 0, 0);
+                movieCode = aMovies.add(movie);
+            }
+            int seatCode = -1;
+            if (ticket.getSeat() != null) {
+                Integer code = aSeats.aCodes.get(ticket.getSeat());
+                if (code == null) {
+                    entries = putEntry(entries, KIND_SEAT, 0, ticket.getSeat(), 0, 0);
+                    code = aSeats.add(ticket.getSeat());
+                }
+                seatCode = code;
+            }
+            LocalDateTime purchased = ticket.getaPurchaseDateTime();
+            rows[i * 5] = high;
+            rows[i * 5 + 1] = low;
+            rows[i * 5 + 2] = purchased == null ? TicketStore.NO_TIME : purchased.toEpochSecond(ZoneOffset.UTC);
+            rows[i * 5 + 3] = movieCode;
+            rows[i * 5 + 4] = seatCode;
+        }
+        entries.flip();
+        while (entries.hasRemaining()) {
+            aDictionary.write(entries);
+        }
+        aDictionary.force(false);
+
+        long index = aSize;
+        List<MappedByteBuffer> touched = new ArrayList<>();
+        for (int i = 0; i < pTickets.size(); i++, index++) {
+            MappedByteBuffer segment = segmentFor(index);
+            if (touched.isEmpty() || touched.get(touched.size() - 1) != segment) {
+                touched.add(segment);
+            }
+            int offset = HEADER_BYTES + (int) (index % SEGMENT_RECORDS) * RECORD_BYTES;
+            segment.putLong(offset + ID_HIGH, rows[i * 5]);
+            segment.putLong(offset + ID_LOW, rows[i * 5 + 1]);
+            segment.putLong(offset + PURCHASED, rows[i * 5 + 2]);
+            segment.putInt(offset + MOVIE, (int) rows[i * 5 + 3]);
+            segment.putInt(offset + SHOWTIME, showtimeCode);
+            segment.putInt(offset + SEAT, (int) rows[i * 5 + 4]);
+        }
+        // Records first, then the counts that make them visible after a restart
+        for (MappedByteBuffer segment : touched) {
+            segment.force();
+        }
+        for (MappedByteBuffer segment : touched) {
+            long start = (long) indexOf(segment) * SEGMENT_RECORDS;
+            segment.putLong(COUNT_OFFSET, Math.min(index, start + SEGMENT_RECORDS) - start);
+            segment.force(0, HEADER_BYTES);
+        }
+        aSize = index;
+
+        // The records are in; now the showtime may count as archived
+        commitCount(showtimeCode, aCommitted.getOrDefault(showtimeCode, 0L) + pTickets.size());
+        return pTickets.size();
+    }
+
+    /**
+     * Makes the number of committed records of a showtime durable.
+     */
+    private void commitCount(int pShowtimeCode, long pCommitted) throws IOException {
+        ByteBuffer count = ByteBuffer.allocate(COUNT_ENTRY_BYTES)
+                .put(KIND_COUNT).putInt(pShowtimeCode).putInt(0).putLong(pCommitted).flip();
+        while (count.hasRemaining()) {
+            aDictionary.write(count);
+        }
+        aDictionary.force(false);
+        aCommitted.put(pShowtimeCode, pCommitted);
+    }
+
+    /**
+     * Collects the ids of the archived tickets of a showtime; the caller holds the lock.
+     *
+     * @return the number of records of the showtime
+     */
+    private long collectTicketIDs(int pShowtimeCode, Set<String> pTicketIDs) {
+        long found = 0;
+        MappedByteBuffer[] segments = aSegments;
+        for (long index = 0; index < aSize; index++) {
+            MappedByteBuffer segment = segments[(int) (index / SEGMENT_RECORDS)];
+            int offset = HEADER_BYTES + (int) (index % SEGMENT_RECORDS) * RECORD_BYTES;
+            if (segment.getInt(offset + SHOWTIME) != pShowtimeCode) {
+                continue;
+            }
+            found++;
+            long high = segment.getLong(offset + ID_HIGH);
+            long low = segment.getLong(offset + ID_LOW);
+            if (high == NUMBERED) {
+                pTicketIDs.add(TicketIdGenerator.format(low));
+            } else if (high != 0) {
+                pTicketIDs.add(new UUID(high, low).toString());
+            } else if (low >= 0) {
+                pTicketIDs.add(aIDs.aValues.get((int) low));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Counts the tickets of a range by movie code, showtime code and hour of purchase,
+     * reading the mapped records directly.
+     */
+    void count(long pFrom, long pTo, long[] pMovies, long[] pShowtimes, long[] pHours) {
+        MappedByteBuffer[] segments = aSegments;
+        for (long index = pFrom; index < pTo; ) {
+            MappedByteBuffer segment = segments[(int) (index / SEGMENT_RECORDS)];
+            long end = Math.min(pTo, (index / SEGMENT_RECORDS + 1) * SEGMENT_RECORDS);
+            int offset = HEADER_BYTES + (int) (index % SEGMENT_RECORDS) * RECORD_BYTES;
+            for (; index < end; index++, offset += RECORD_BYTES) {
+                pMovies[segment.getInt(offset + MOVIE)]++;
+                pShowtimes[segment.getInt(offset + SHOWTIME)]++;
+                long purchased = segment.getLong(offset + PURCHASED);
+                if (purchased != TicketStore.NO_TIME) {
+                    pHours[(int) (Math.floorMod(purchased, 86_400L) / 3_600)]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes the purchase time of every archived ticket that has one, in epoch seconds.
+     */
+    void forEachPurchase(LongConsumer pAction) {
+        MappedByteBuffer[] segments = aSegments;
+        long size = aSize;
+        for (long index = 0; index < size; index++) {
+            MappedByteBuffer segment = segments[(int) (index / SEGMENT_RECORDS)];
+            long purchased = segment.getLong(HEADER_BYTES + (int) (index % SEGMENT_RECORDS) * RECORD_BYTES + PURCHASED);
+            if (purchased != TicketStore.NO_TIME) {
+                pAction.accept(purchased);
+            }
+        }
+    }
+
+    /**
+     * Gets the code of a showtime, as counted by {@link #count}.
+     *
+     * @return the code, or -1 if the archive has no tickets of the showtime
+     */
+    synchronized int showtimeCodeOf(Showtime pShowtime) {
+        Integer code = aShowtimeCodes.get(showKey(pShowtime));
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * Gets the movie names by code, for the codes in use so far.
+     */
+    synchronized List<String> movieNames() {
+        List<String> names = new ArrayList<>(aMovies.aValues.size());
+        for (MovieEntry movie : aMovies.aValues) {
+            names.add(movie.name());
+        }
+        return names;
+    }
+
+    /**
+     * Gets the showtime labels by code, for the codes in use so far.
+     */
+    synchronized List<String> showtimeLabels() {
+        List<String> labels = new ArrayList<>(aShowtimes.aValues.size());
+        for (ShowtimeEntry showtime : aShowtimes.aValues) {
+            labels.add(showtime.label());
+        }
+        return labels;
+    }
+
+    /**
+     * Closes the files of the archive. The mapped segments stay readable until they are
+     * garbage collected.
+     *
+     * @throws IOException if a file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closeChannels();
+    }
+
+    /**
+     * Closes the dictionary and segment files; also used by the constructor, which must
+     * not call the overridable {@link #close()}.
+     */
+    private void closeChannels() throws IOException {
+        aDictionary.close();
+        for (FileChannel channel : aChannels) {
+            channel.close();
+        }
+    }
+
+    private MappedByteBuffer segmentFor(long pIndex) throws IOException {
+        int number = (int) (pIndex / SEGMENT_RECORDS);
+        if (number == aSegments.length) {
+            MappedByteBuffer segment = mapSegment(number);
+            segment.putInt(0, MAGIC);
+            segment.putInt(4, RECORD_BYTES);
+            segment.putLong(COUNT_OFFSET, 0);
+        }
+        return aSegments[number];
+    }
+
+    private int indexOf(MappedByteBuffer pSegment) {
+        MappedByteBuffer[] segments = aSegments;
+        for (int i = segments.length - 1; i >= 0; i--) {
+            if (segments[i] == pSegment) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Unknown segment");
+    }
+
+    /**
+     * Maps a segment file, creating it at its full size if needed, and adds it to the segments.
+     */
+    private MappedByteBuffer mapSegment(int pNumber) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(pNumber),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        aChannels.add(channel);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_BYTES + (long) SEGMENT_RECORDS * RECORD_BYTES);
+        MappedByteBuffer[] segments = Arrays.copyOf(aSegments, pNumber + 1);
+        segments[pNumber] = buffer;
+        aSegments = segments;
+        return buffer;
+    }
+
+    private Path segmentPath(int pNumber) {
+        return aDirectory.resolve(String.format("segment-%05d.dat", pNumber));
+    }
+
+    /**
+     * Reads the dictionary, cutting off an entry torn by a crash.
+     */
+    private void loadDictionary() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) aDictionary.size());
+        while (buffer.hasRemaining()) {
+            if (aDictionary.read(buffer, buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        int valid = 0;
+        try {
+            while (buffer.hasRemaining()) {
+                byte kind = buffer.get();
+                int id = buffer.getInt();
+                String text = getText(buffer);
+                switch (kind) {
+                    case KIND_MOVIE -> aMovies.add(new MovieEntry(text));
+                    case KIND_SHOWTIME -> {
+                        ShowtimeEntry showtime = new ShowtimeEntry(text, buffer.getInt(), buffer.getLong());
+                        aShowtimeCodes.put(new ShowKey(showtime.roomNumber(), showtime.start()),
+                                aShowtimes.add(showtime));
+                    }
+                    case KIND_SEAT -> aSeats.add(text);
+                    case KIND_ID -> aIDs.add(text);
+                    // Later counts of a showtime replace earlier ones
+                    case KIND_COUNT -> aCommitted.put(id, buffer.getLong());
+                    default -> throw new IOException("Corrupt archive dictionary at byte " + valid);
+                }
+                valid = buffer.position();
+            }
+        } catch (BufferUnderflowException e) {
+            // Torn tail: the records using this entry were never counted
+        }
+        aDictionary.truncate(valid);
+        aDictionary.position(valid);
+    }
+
+    private static ByteBuffer putEntry(ByteBuffer pBuffer, byte pKind, int pID, String pText, int pRoom, long pStart) {
+        byte[] text = pText == null ? new byte[0] : pText.getBytes(StandardCharsets.UTF_8);
+        int needed = 1 + 4 + 4 + text.length + (pKind == KIND_SHOWTIME ? 12 : 0);
+        if (pBuffer.remaining() < needed) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(pBuffer.capacity() * 2, pBuffer.position() + needed));
+            pBuffer.flip();
+            larger.put(pBuffer);
+            pBuffer = larger;
+        }
+        pBuffer.put(pKind).putInt(pID).putInt(text.length).put(text);
+        if (pKind == KIND_SHOWTIME) {
+            pBuffer.putInt(pRoom).putLong(pStart);
+        }
+        return pBuffer;
+    }
+
+    private static String getText(ByteBuffer pBuffer) {
+        byte[] text = new byte[pBuffer.getInt()];
+        pBuffer.get(text);
+        return new String(text, StandardCharsets.UTF_8);
+    }
+
+    private static ShowKey showKey(Showtime pShowtime) {
+        return new ShowKey(pShowtime.getShowroom().getRoomNumber(),
+                pShowtime.getShowtime().toEpochSecond(ZoneOffset.UTC));
+    }
+
+    private static UUID asUUID(String pTicketID) {
+        if (pTicketID == null || pTicketID.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(pTicketID);
+            long high = uuid.getMostSignificantBits();
+            return high != 0 && high != NUMBERED && uuid.toString().equals(pTicketID) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package com.example.integration_project.Model;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * <h1>TicketExporter</h1>
+ * Streams tickets to a CSV or newline-delimited JSON file.
+ *
+ * <p>Rows are encoded into one fixed block of bytes that is handed to a
+ * {@link FileChannel} through a direct {@link ByteBuffer} whenever it fills up, so the export runs in constant memory
+ * whatever the number of tickets: no string is built per row and the file is never held
+ * in memory. A {@link TicketStore} is read column by column without building any
+ * {@link Ticket}; numbered ticket ids, numbers and dates are written digit by digit and
+ * text is encoded to UTF-8 in place. Movie and showtime ids only hold for one run, so a
+ * row names its movie and showtime instead.</p>
+ *
+ * <p>The file is written next to the target under a temporary name and moved over the
+ * target once it is complete, so readers never see a half-written export. The ticket
+ * list must not change while it is exported; an export can be stopped by interrupting
+ * its thread.</p>
+ *
+ * @author Dieudonné
+ * @version 1.0
+ * @see TicketManager
+ */
+public class TicketExporter {
+
+    /** Default size of the output buffer. */
+    public static final int DEFAULT_BUFFER_BYTES = 1 << 20;
+
+    /** Rows written between two progress reports. */
+    private static final int PROGRESS_ROWS = 1 << 16;
+
+    /** Room reserved for the keys, numbers and dates written between two text fields. */
+    private static final int MAX_ROW_OVERHEAD = 256;
+
+    private static final byte[] CSV_HEADER = bytes("ticket_id,movie,showtime,seat,purchased\n");
+    private static final byte[] NULL = bytes("null");
+
+    /** What goes before each field and at the end of a row, in field order. */
+    private static final byte[][] CSV_SEPARATORS = {
+            bytes(""), bytes(","), bytes(","), bytes(","), bytes(","), bytes("\n")};
+    private static final byte[][] JSON_KEYS = {
+            bytes("{\"ticketId\":"), bytes(",\"movie\":"), bytes(",\"showtime\":"), bytes(",\"seat\":"),
+            bytes(",\"purchased\":"), bytes("}\n")};
+
+    /**
+     * The file formats an export can be written in.
+     */
+    public enum Format {
+        /** Comma-separated values with a header line, quoted as in RFC 4180. */
+        CSV,
+        /** One JSON object per line. */
+        NDJSON
+    }
+
+    /**
+     * Receives the progress of an export.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * Called regularly during an export and once when it completes.
+         *
+         * @param pWritten the number of tickets written so far
+         * @param pTotal   the number of tickets to write
+         */
+        void progress(long pWritten, long pTotal);
+    }
+
+    /**
+     * Receives the rows of a ticket list one at a time.
+     */
+    interface RowWriter {
+        /**
+         * Writes one ticket.
+         *
+         * @param pNumber     the ticket number, or 0 if the ticket has a text id
+         * @param pTicketID   the text id when pNumber is 0, may be null
+         * @param pMovie      the movie name
+         * @param pShowtime   the showtime display string
+         * @param pSeat       the seat label, may be null
+         * @param pPurchased  the purchase time in epoch seconds, or {@link TicketStore#NO_TIME}
+         * @throws IOException if the row cannot be written
+         */
+        void write(long pNumber, String pTicketID, String pMovie, String pShowtime, String pSeat, long pPurchased)
+                throws IOException;
+    }
+
+    private final int aBufferBytes;
+
+    /**
+     * Constructs an exporter with a {@value #DEFAULT_BUFFER_BYTES}-byte buffer.
+     */
+    public TicketExporter() {
+        this(DEFAULT_BUFFER_BYTES);
+    }
+
+    /**
+     * Constructs an exporter with the given buffer size.
+     *
+     * @param pBufferBytes the size of the output buffer in bytes, at least 4096
+     * @throws IllegalArgumentException if pBufferBytes is too small
+     */
+    public TicketExporter(int pBufferBytes) {
+        if (pBufferBytes < 4096) {
+            throw new IllegalArgumentException("Buffer must hold at least 4096 bytes");
+        }
+        aBufferBytes = pBufferBytes;
+    }
+
+    /**
+     * Exports tickets to a file, replacing it if it exists.
+     *
+     * @param pTickets  the tickets to export
+     * @param pTarget   the file to write
+     * @param pFormat   the file format
+     * @param pListener receives the progress, may be null
+     * @return the number of tickets written
+     * @throws IllegalArgumentException if pTickets, pTarget or pFormat is null
+     * @throws InterruptedIOException   if the thread is interrupted; the target is left untouched
+     * @throws IOException              if the file cannot be written
+     */
+    public long export(List<Ticket> pTickets, Path pTarget, Format pFormat, ProgressListener pListener)
+            throws IOException {
+        if (pTickets == null || pTarget == null || pFormat == null) {
+            throw new IllegalArgumentException("Tickets, target and format cannot be null");
+        }
+        Path target = pTarget.toAbsolutePath();
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        long written;
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Encoder encoder = new Encoder(channel, pFormat, pTickets.size(), pListener);
+            written = encoder.run(pTickets);
+            channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        try {
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return written;
+    }
+
+    /**
+     * The state of one export. Rows are encoded into a heap array, which the JIT fills
+     * without bounds-checked buffer calls, and each full array is copied once into the
+     * direct buffer the channel writes from.
+     */
+    private final class Encoder implements RowWriter {
+        private final FileChannel aChannel;
+        private final boolean aJson;
+        private final long aTotal;
+        private final ProgressListener aListener;
+        private final ByteBuffer aBuffer = ByteBuffer.allocateDirect(aBufferBytes);
+        private final byte[] aBytes = new byte[aBufferBytes];
+        private final byte[][] aKeys;
+        private int aPosition;
+        private long aWritten;
+
+        private Encoder(FileChannel pChannel, Format pFormat, long pTotal, ProgressListener pListener) {
+            aChannel = pChannel;
+            aJson = pFormat == Format.NDJSON;
+            aTotal = pTotal;
+            aListener = pListener;
+            aKeys = aJson ? JSON_KEYS : CSV_SEPARATORS;
+        }
+
+        private long run(List<Ticket> pTickets) throws IOException {
+            if (!aJson) {
+                put(CSV_HEADER);
+            }
+            if (pTickets instanceof TicketStore store) {
+                store.forEachRow(this);
+            } else {
+                for (Ticket ticket : pTickets) {
+                    long purchased = ticket.getaPurchaseDateTime() == null ? TicketStore.NO_TIME
+                            : ticket.getaPurchaseDateTime().toEpochSecond(ZoneOffset.UTC);
+                    write(ticket.getTicketNumber(), ticket.getaTicketID(), ticket.getName(), ticket.getTime(),
+                            ticket.getSeat(), purchased);
+                }
+            }
+            flush();
+            report();
+            return aWritten;
+        }
+
+        @Override
+        public void write(long pNumber, String pTicketID, String pMovie, String pShowtime, String pSeat,
+                          long pPurchased) throws IOException {
+            reserve(MAX_ROW_OVERHEAD);
+            put(aKeys[0]);
+            if (pNumber > 0) {
+                quoteJson();
+                putTicketNumber(pNumber);
+                quoteJson();
+            } else {
+                text(pTicketID);
+            }
+            put(aKeys[1]);
+            text(pMovie);
+            reserve(MAX_ROW_OVERHEAD);
+            put(aKeys[2]);
+            text(pShowtime);
+            reserve(MAX_ROW_OVERHEAD);
+            put(aKeys[3]);
+            text(pSeat);
+            reserve(MAX_ROW_OVERHEAD);
+            put(aKeys[4]);
+            if (pPurchased != TicketStore.NO_TIME) {
+                quoteJson();
+                putDateTime(pPurchased);
+                quoteJson();
+            } else if (aJson) {
+                put(NULL);
+            }
+            put(aKeys[5]);
+            if (++aWritten % PROGRESS_ROWS == 0) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedIOException("Export interrupted after " + aWritten + " tickets");
+                }
+                report();
+            }
+        }
+
+        private void report() {
+            if (aListener != null) {
+                aListener.progress(aWritten, aTotal);
+            }
+        }
+
+        private void put(byte[] pBytes) {
+            System.arraycopy(pBytes, 0, aBytes, aPosition, pBytes.length);
+            aPosition += pBytes.length;
+        }
+
+        private void put(int pByte) {
+            aBytes[aPosition++] = (byte) pByte;
+        }
+
+        /**
+         * Quotes ids and dates in JSON; in CSV they never need quotes.
+         */
+        private void quoteJson() {
+            if (aJson) {
+                put('"');
+            }
+        }
+
+        /**
+         * Writes a text field: quoted and escaped in JSON, quoted in CSV only when needed.
+         */
+        private void text(String pText) throws IOException {
+            if (pText == null) {
+                if (aJson) {
+                    put(NULL);
+                }
+                return;
+            }
+            int length = pText.length();
+            boolean quoted = aJson || needsQuotes(pText);
+            // A char takes at most 6 bytes (a JSON escape); reserve once when the whole text fits
+            boolean reserved = length <= (aBytes.length - MAX_ROW_OVERHEAD) / 6;
+            if (reserved) {
+                reserve(length * 6 + 2);
+            }
+            if (quoted) {
+                put('"');
+            }
+            for (int i = 0; i < length; i++) {
+                if (!reserved) {
+                    reserve(8);
+                }
+                char c = pText.charAt(i);
+                if (c == '"') {
+                    put(aJson ? '\\' : '"');
+                    put('"');
+                } else if (aJson && c == '\\') {
+                    put('\\');
+                    put('\\');
+                } else if (aJson && c < 0x20) {
+                    put('\\');
+                    put('u');
+                    put('0');
+                    put('0');
+                    put(hex(c >> 4));
+                    put(hex(c & 15));
+                } else if (c < 0x80) {
+                    put(c);
+                } else if (c < 0x800) {
+                    put(0xC0 | c >> 6);
+                    put(0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(pText.charAt(i + 1))) {
+                    int code = Character.toCodePoint(c, pText.charAt(++i));
+                    put(0xF0 | code >> 18);
+                    put(0x80 | code >> 12 & 0x3F);
+                    put(0x80 | code >> 6 & 0x3F);
+                    put(0x80 | code & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    put('?');
+                } else {
+                    put(0xE0 | c >> 12);
+                    put(0x80 | c >> 6 & 0x3F);
+                    put(0x80 | c & 0x3F);
+                }
+            }
+            reserve(2);
+            if (quoted) {
+                put('"');
+            }
+        }
+
+        private static boolean needsQuotes(String pText) {
+            for (int i = 0; i < pText.length(); i++) {
+                char c = pText.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static int hex(int pDigit) {
+            return pDigit < 10 ? '0' + pDigit : 'a' + pDigit - 10;
+        }
+
+        /**
+         * Writes a ticket number as {@link TicketIdGenerator#format(long)} does, without a string.
+         */
+        private void putTicketNumber(long pNumber) {
+            int length = TicketIdGenerator.FORMATTED_LENGTH;
+            for (int i = aPosition + length - 1; i >= aPosition; i--) {
+                aBytes[i] = (byte) TicketIdGenerator.digit((int) (pNumber & 31));
+                pNumber >>>= 5;
+            }
+            aPosition += length;
+        }
+
+        private void putLong(long pValue) {
+            if (pValue < 0) {
+                put('-');
+                pValue = -pValue;
+            }
+            int digits = 1;
+            for (long rest = pValue / 10; rest > 0; rest /= 10) {
+                digits++;
+            }
+            for (int i = aPosition + digits - 1; i >= aPosition; i--) {
+                aBytes[i] = (byte) ('0' + pValue % 10);
+                pValue /= 10;
+            }
+            aPosition += digits;
+        }
+
+        /**
+         * Writes epoch seconds as an ISO-8601 local date-time, e.g. 2027-01-01T10:00:00.
+         */
+        private void putDateTime(long pEpochSecond) {
+            long days = Math.floorDiv(pEpochSecond, 86_400L);
+            int seconds = (int) Math.floorMod(pEpochSecond, 86_400L);
+            // Civil date from a day count, shifted so years start on March 1st
+            long z = days + 719_468;
+            long era = Math.floorDiv(z, 146_097);
+            long dayOfEra = z - era * 146_097;
+            long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+            long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+            long monthIndex = (5 * dayOfYear + 2) / 153;
+            int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+            int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+            long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+            putLong(year);
+            put('-');
+            putTwoDigits(month);
+            put('-');
+            putTwoDigits(day);
+            put('T');
+            putTwoDigits(seconds / 3600);
+            put(':');
+            putTwoDigits(seconds / 60 % 60);
+            put(':');
+            putTwoDigits(seconds % 60);
+        }
+
+        private void putTwoDigits(int pValue) {
+            put('0' + pValue / 10);
+            put('0' + pValue % 10);
+        }
+
+        /**
+         * Makes sure there is room for pBytes more bytes, writing the array out if needed.
+         */
+        private void reserve(int pBytes) throws IOException {
+            if (aBytes.length - aPosition < pBytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            aBuffer.clear();
+            aBuffer.put(aBytes, 0, aPosition);
+            aBuffer.flip();
+            while (aBuffer.hasRemaining()) {
+                aChannel.write(aBuffer);
+            }
+            aPosition = 0;
+        }
+    }
+
+    private static byte[] bytes(String pText) {
+        return pText.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.integration_project.Model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates 64-bit, time-ordered ticket ids tagged with the node that issued them.
+ *
+ * <p>An id packs, from the most significant bit down, 41 bits of milliseconds since
+ * 2025-01-01T00:00Z, 10 bits of node number and a 12-bit sequence within the
+ * millisecond. Ids from one node are strictly increasing, so they sort by issue time,
+ * and nodes never collide. The millisecond and the sequence live in one
+ * {@link AtomicLong} that is advanced with a single compare-and-set: no lock, no
+ * random source and no allocation per id. When more than 4096 ids are needed in one
+ * millisecond, or the wall clock steps back, the generator borrows the next
+ * millisecond instead of waiting.</p>
+ *
+ * <p>{@link #format(long)} turns an id into a 13-character Crockford base-32 string
+ * for display. Formatted ids keep the numeric order when compared as strings.</p>
+ *
+ * @author Ian
+ * @version 1.0
+ */
+public class TicketIdGenerator {
+
+    /** Start of the id clock: 2025-01-01T00:00Z in epoch milliseconds. */
+    public static final long EPOCH_MILLIS = 1_735_689_600_000L;
+
+    /** Number of node numbers available. */
+    public static final int MAX_NODES = 1 << 10;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    /** Number of characters of a formatted id. */
+    static final int FORMATTED_LENGTH = 13;
+    private static final char[] DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private static TicketIdGenerator instance;
+
+    private final long node;
+    /** Milliseconds since the epoch shifted left by the sequence bits, plus the sequence. */
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * Constructs a generator for a node.
+     *
+     * @param node the node number, between 0 and {@value #MAX_NODES} - 1
+     * @throws IllegalArgumentException if node is out of range
+     */
+    public TicketIdGenerator(int node) {
+        if (node < 0 || node >= MAX_NODES) {
+            throw new IllegalArgumentException("Node must be between 0 and " + (MAX_NODES - 1));
+        }
+        this.node = node;
+    }
+
+    /**
+     * Gets the generator of this process. Its node number is read from the
+     * {@code theatre.node} system property, 0 by default.
+     *
+     * @return the shared generator
+     */
+    public static synchronized TicketIdGenerator getInstance() {
+        if (instance == null) {
+            instance = new TicketIdGenerator(Integer.getInteger("theatre.node", 0));
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the next id.
+     *
+     * @return a positive id, greater than every id this generator returned before
+     */
+    public long nextId() {
+        while (true) {
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            long current = state.get();
+            // A new millisecond restarts the sequence; otherwise the sequence carries into the next millisecond
+            long next = now > (current >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+            if (state.compareAndSet(current, next)) {
+                return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)
+                        | node << SEQUENCE_BITS
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * Gets the time an id was issued at.
+     *
+     * @param id a generated id
+     * @return the epoch milliseconds encoded in the id
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    /**
+     * Gets the node that issued an id.
+     *
+     * @param id a generated id
+     * @return the node number
+     */
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & (MAX_NODES - 1));
+    }
+
+    /**
+     * Formats an id for display as 13 Crockford base-32 characters.
+     *
+     * @param id a generated id
+     * @return the display string
+     */
+    public static String format(long id) {
+        char[] text = new char[FORMATTED_LENGTH];
+        for (int i = FORMATTED_LENGTH - 1; i >= 0; i--) {
+            text[i] = digit((int) (id & 31));
+            id >>>= 5;
+        }
+        return new String(text);
+    }
+
+    /**
+     * Reads an id back from its display string.
+     *
+     * @param text a string produced by {@link #format(long)}
+     * @return the id, or -1 if text is not a formatted id
+     */
+    public static long parse(String text) {
+        if (text == null || text.length() != FORMATTED_LENGTH || text.charAt(0) > '7') {
+            return -1;
+        }
+        long id = 0;
+        for (int i = 0; i < FORMATTED_LENGTH; i++) {
+            int digit = digitOf(text.charAt(i));
+            if (digit < 0) {
+                return -1;
+            }
+            id = id << 5 | digit;
+        }
+        return id;
+    }
+
+    /**
+     * Gets the character of a base-32 digit.
+     *
+     * @param value a digit between 0 and 31
+     * @return its Crockford base-32 character
+     */
+    static char digit(int value) {
+        return DIGITS[value];
+    }
+
+    private static int digitOf(char c) {
+        for (int digit = 0; digit < DIGITS.length; digit++) {
+            if (DIGITS[digit] == c) {
+                return digit;
+            }
+        }
+        return -1;
+    }
+}
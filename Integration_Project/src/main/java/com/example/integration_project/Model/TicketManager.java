@@ -1,9 +1,19 @@
 package com.example.integration_project.Model;
 
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
 
 /**
  * <h1>TicketManager</h1>
@@ -12,6 +22,14 @@ import java.util.List;
  * It provides methods for accessing and modifying the ticket list,
  * as well as static utility methods for counting tickets based on criteria.
  *
+ * <p>The tickets are kept in a column-oriented {@link TicketStore}, which needs a
+ * fraction of the memory of one object per ticket and builds {@link Ticket} objects
+ * only when they are read. Sales per movie and per showtime are kept in counters,
+ * keyed by the numeric ids carried by each ticket, that follow every change of the
+ * ticket list. So {@link #getSoldByMovie(int)} and {@link #getSoldByShowtime(int)}
+ * answer in constant time however many tickets are loaded. Tickets moved to the
+ * {@link TicketArchive} keep counting, also after a restart.</p>
+ *
  * @author Dieudonné
  * @version 1.0
  * @see Ticket
@@ -24,16 +42,26 @@ public class TicketManager {
     private static TicketManager aInstance;
 
     /**
-     * An observable list containing all Ticket objects currently in the system.
+     * An observable, column-oriented list containing all tickets currently in the system.
+     */
+    private final TicketStore aTickets;
+
+    /**
+     * Where the tickets of past showtimes are moved to, or null.
+     */
+    private TicketArchive aArchive;
+
+    /**
+     * Where admissions are written to, or null.
      */
-    private final ObservableList<Ticket> aTickets;
+    private volatile BookingJournal aJournal;
 
     /**
      * Private constructor to enforce the Singleton pattern.
-     * Initializes the observable list for tickets.
+     * Initializes the ticket store.
      */
     private TicketManager() {
-        aTickets = FXCollections.observableArrayList();
+        aTickets = new TicketStore();
     }
 
     /**
@@ -67,14 +95,255 @@ public class TicketManager {
         aTickets.add(ticket);
     }
 
+    /**
+     * Adds a batch of tickets in a single insert, so observers of the ticket list
+     * receive one change instead of one per ticket.
+     *
+     * @param tickets The {@link Ticket} objects to be added.
+     * @throws IllegalArgumentException if tickets is null or contains a null ticket
+     */
+    public void addTickets(Collection<Ticket> tickets) {
+        if (tickets == null) {
+            throw new IllegalArgumentException("Tickets cannot be null");
+        }
+        // Checked by hand: contains(null) throws on the immutable lists the booking service hands out
+        for (Ticket ticket : tickets) {
+            if (ticket == null) {
+                throw new IllegalArgumentException("Tickets cannot be null");
+            }
+        }
+        aTickets.addAll(tickets);
+    }
+
+    /**
+     * Removes a ticket from the managed list, e.g. after a cancellation.
+     * The ticket is matched by its ticket id, since the list hands out fresh {@link Ticket} objects.
+     *
+     * @param ticket The {@link Ticket} object to be removed.
+     * @return true if the ticket was in the list
+     */
+    public boolean removeTicket(Ticket ticket) {
+        return aTickets.remove(ticket);
+    }
+
+    /**
+     * Finds a ticket by its id through the ticket index, in constant time.
+     *
+     * @param ticketID The ticket id, as printed on the ticket.
+     * @return The ticket, or null if no managed ticket has that id.
+     */
+    public Ticket findTicket(String ticketID) {
+        return aTickets.findTicket(ticketID);
+    }
+
+    /**
+     * Checks a scanned ticket at the entrance without using it.
+     *
+     * @param ticketID The scanned ticket id.
+     * @return Whether the ticket would be admitted, was already used or is unknown.
+     */
+    public TicketStore.Admission validateTicket(String ticketID) {
+        return aTickets.validate(ticketID);
+    }
+
+    /**
+     * Admits a scanned ticket: checks it and marks it used atomically, so the same ticket
+     * is never admitted twice, even by scanners on different threads. When a journal is set,
+     * the admission is durable before the call returns, so it survives a restart.
+     *
+     * @param ticketID The scanned ticket id.
+     * @return {@code ADMIT} if the ticket was valid and is now used, otherwise why it was refused.
+     * @throws IllegalStateException if the admission could not be journaled; the ticket stays unused
+     */
+    public TicketStore.Admission redeemTicket(String ticketID) {
+        TicketStore.Admission admission = aTickets.redeem(ticketID);
+        BookingJournal journal = aJournal;
+        if (admission == TicketStore.Admission.ADMIT && journal != null) {
+            // Other scanners already see the ticket as used while the record is written
+            try {
+                journal.appendRedeemed(ticketID).join();
+            } catch (RuntimeException e) {
+                aTickets.setRedeemed(ticketID, false);
+                throw new IllegalStateException("Admission could not be saved",
+                        e instanceof CompletionException ? e.getCause() : e);
+            }
+        }
+        return admission;
+    }
+
+    /**
+     * Marks tickets as used again after a restart, e.g. with the admissions replayed by
+     * {@link BookingService#recover(BookingJournal)}. Unknown ids are ignored.
+     *
+     * @param ticketIDs The ids of the tickets that were admitted.
+     */
+    public void restoreRedeemed(Collection<String> ticketIDs) {
+        for (String ticketID : ticketIDs) {
+            aTickets.setRedeemed(ticketID, true);
+        }
+    }
+
+    /**
+     * Sets the journal that admissions are written to.
+     *
+     * @param journal The journal, or null to stop journaling.
+     */
+    public void setJournal(BookingJournal journal) {
+        aJournal = journal;
+    }
+
+    /**
+     * Gets the number of tickets sold for a movie, in constant time.
+     *
+     * @param movieID The id of the movie (see {@link Movie#getId()}).
+     * @return The number of tickets sold for that movie, including archived ones.
+     */
+    public long getSoldByMovie(int movieID) {
+        return aTickets.getSoldByMovie(movieID);
+    }
+
+    /**
+     * Gets the number of tickets sold for a showtime, in constant time.
+     *
+     * @param showtimeID The id of the showtime (see {@link Showtime#getId()}).
+     * @return The number of tickets sold for that showtime, including archived ones.
+     */
+    public long getSoldByShowtime(int showtimeID) {
+        return aTickets.getSoldByShowtime(showtimeID);
+    }
+
+    /**
+     * Gets the sales per hour, day and week of purchase. The rollup is updated as tickets
+     * are added and removed, so any recent window is read without scanning the tickets.
+     * Archived tickets still count.
+     *
+     * @return The sales rollup of the managed tickets.
+     */
+    public SalesRollup getSalesRollup() {
+        return aTickets.getRollup();
+    }
+
+    /**
+     * Sets the archive that tickets of past showtimes are moved to. The tickets it already
+     * holds are added to the sales counters and the rollup, so sales figures include them
+     * after a restart; set the archive once, after the catalogs are loaded.
+     *
+     * @param archive The archive, or null to keep all tickets in memory.
+     */
+    public void setArchive(TicketArchive archive) {
+        aArchive = archive;
+        if (archive != null) {
+            countArchived(archive);
+        }
+    }
+
+    /**
+     * Adds the tickets of an archive to the sales counters and the rollup. Archived movies
+     * are matched by name and archived showtimes by room and start time, since the ids of
+     * an earlier run are not those of this one.
+     */
+    private void countArchived(TicketArchive archive) {
+        List<String> movieNames = archive.movieNames();
+        long[] movies = new long[movieNames.size()];
+        long[] showtimes = new long[archive.showtimeLabels().size()];
+        archive.count(0, archive.size(), movies, showtimes, new long[24]);
+
+        Map<Integer, Long> byMovie = new HashMap<>();
+        MovieManager movieManager = MovieManager.getMovieManagerInstance();
+        for (int code = 0; code < movies.length; code++) {
+            Movie movie = movieManager.findByName(movieNames.get(code));
+            if (movie != null && movies[code] > 0) {
+                byMovie.merge(movie.getId(), movies[code], Long::sum);
+            }
+        }
+        Map<Integer, Long> byShowtime = new HashMap<>();
+        for (Showtime showtime : ShowtimeManager.getCatalog().snapshot()) {
+            int code = archive.showtimeCodeOf(showtime);
+            if (code >= 0 && showtimes[code] > 0) {
+                byShowtime.put(showtime.getId(), showtimes[code]);
+            }
+        }
+        aTickets.countSold(byMovie, byShowtime);
+        SalesRollup rollup = aTickets.getRollup();
+        archive.forEachPurchase(purchased -> rollup.record(purchased, 1));
+    }
+
+    /**
+     * Gets the archive holding the tickets of past showtimes.
+     *
+     * @return The archive, or null if none is set.
+     */
+    public TicketArchive getArchive() {
+        return aArchive;
+    }
+
+    /**
+     * Moves the tickets of every showtime that started before a cutoff into the archive.
+     * Each showtime is appended durably before its tickets leave the list, and the list is
+     * then compacted with a single change. Tickets the archive already holds, e.g. sample
+     * tickets loaded again at startup, are only dropped from the list, so they are never
+     * archived twice.
+     *
+     * @param cutoff Showtimes starting before this time are archived.
+     * @return The number of tickets removed from the list.
+     * @throws IOException If the archive cannot be written; the list is then unchanged.
+     * @throws IllegalArgumentException if cutoff is null
+     * @throws IllegalStateException if no archive is set
+     */
+    public int archiveBefore(LocalDateTime cutoff) throws IOException {
+        if (cutoff == null) {
+            throw new IllegalArgumentException("Cutoff cannot be null");
+        }
+        if (aArchive == null) {
+            throw new IllegalStateException("No archive is set");
+        }
+        Map<Integer, Showtime> past = new HashMap<>();
+        for (Showtime showtime : ShowtimeManager.getShowtimeManagerInstance()
+                .getShowtimesBetween(LocalDateTime.MIN, cutoff)) {
+            past.put(showtime.getId(), showtime);
+        }
+        Map<Integer, List<Ticket>> moving = new LinkedHashMap<>();
+        for (int i = 0; i < aTickets.size(); i++) {
+            int showtimeID = aTickets.showtimeIDAt(i);
+            if (past.containsKey(showtimeID)) {
+                moving.computeIfAbsent(showtimeID, id -> new ArrayList<>()).add(aTickets.get(i));
+            }
+        }
+        Set<String> alreadyArchived = new HashSet<>();
+        for (Map.Entry<Integer, List<Ticket>> entry : moving.entrySet()) {
+            aArchive.append(past.get(entry.getKey()), entry.getValue(), alreadyArchived);
+        }
+        return aTickets.removeArchived(moving.keySet(), alreadyArchived);
+    }
+
+    /**
+     * Exports all managed tickets to a CSV or NDJSON file in constant memory.
+     * The ticket list must not change until the export returns.
+     *
+     * @param target   The file to write, replaced if it exists.
+     * @param format   The file format.
+     * @param listener Receives the progress of the export, may be null.
+     * @return The number of tickets written.
+     * @throws IOException If the file cannot be written.
+     */
+    public long exportTickets(Path target, TicketExporter.Format format, TicketExporter.ProgressListener listener)
+            throws IOException {
+        return new TicketExporter().export(aTickets, target, format, listener);
+    }
+
     /**
      * Counts the number of tickets for a given movie name.
+     * Scans the whole list; use {@link #getSoldByMovie(int)} for the managed tickets.
      *
      * @param tickets The list of all tickets to search within.
      * @param movieName The name of the movie to filter by (e.g., "Inception").
      * @return The number of tickets sold for that movie.
      */
     public static long countByMovie(List<Ticket> tickets, String movieName) {
+        if (tickets instanceof TicketStore store) {
+            // Scan the movie column instead of building every ticket
+            return store.countByMovie(movieName);
+        }
         long count = 0;
 
         for (Ticket t : tickets) {
@@ -88,12 +357,17 @@ public class TicketManager {
 
     /**
      * Counts the number of tickets for a given showtime identifier.
+     * Scans the whole list; use {@link #getSoldByShowtime(int)} for the managed tickets.
      *
      * @param tickets The list of all tickets to search within.
      * @param showtime The identifier or time string of the showtime to filter by.
      * @return The number of tickets sold for that specific showtime.
      */
     public static long countByShowtime(List<Ticket> tickets, String showtime) {
+        if (tickets instanceof TicketStore store) {
+            // Scan the showtime column instead of building every ticket
+            return store.countByShowtime(showtime);
+        }
         long count = 0;
 
         for (Ticket t : tickets) {
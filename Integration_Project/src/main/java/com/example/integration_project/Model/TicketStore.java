@@ -0,0 +1,810 @@
+package com.example.integration_project.Model;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.collections.ModifiableObservableListBase;
+
+/**
+ * <h1>TicketStore</h1>
+ * A column-oriented, observable list of tickets.
+ *
+ * <p>Instead of one {@link Ticket} object per sale, every field lives in a primitive
+ * array: the ticket id as two longs (a generated ticket number or a UUID), the purchase
+ * time as epoch seconds, and
+ * the showtime, movie and seat as int codes into small dictionaries that hold each
+ * distinct value once. A ticket costs about 36 bytes instead of roughly 200 for the
+ * object, its strings and its date. {@link Ticket} objects are only built when an
+ * element is read, e.g. when a list cell is shown.</p>
+ *
+ * <p>Counting by movie or showtime compares int codes in a tight loop over one array,
+ * and the per-movie and per-showtime sales counters and the hourly, daily and weekly
+ * {@link SalesRollup} are updated in constant time on every change, without building
+ * any ticket.</p>
+ *
+ * <p>Tickets are found by id through an open-addressing hash index that maps the id
+ * words to a row, so {@link #findTicket(String)}, {@link #validate(String)} and
+ * {@link #redeem(String)} answer in constant time however many tickets are loaded. A
+ * redeemed flag is kept per row next to the other columns.</p>
+ *
+ * <p>Like any JavaFX list, the store may only be changed on one thread at a time
+ * (normally the FX thread). The sales counters can be read from any thread, and the
+ * lookups by id and the redeemed flags are guarded by a lock so entrance scanners can
+ * use them from their own threads.</p>
+ *
+ * @author Dieudonné
+ * @version 1.0
+ * @see TicketManager
+ */
+public class TicketStore extends ModifiableObservableListBase<Ticket> {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Upper id word marking a generated ticket number, kept in the lower word. */
+    private static final long NUMBERED = -1L;
+
+    /** Marks an empty slot of the id index. */
+    private static final int EMPTY = -1;
+
+    /** Purchase time stored for tickets without one. */
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    /**
+     * The answer to a ticket scanned at the entrance.
+     */
+    public enum Admission {
+        /** The ticket is valid: it was not used before. */
+        ADMIT,
+        /** The ticket was already used. */
+        ALREADY_USED,
+        /** No ticket has that id. */
+        UNKNOWN
+    }
+
+    /**
+     * A movie as referenced by tickets.
+     */
+    private record MovieKey(int id, String name) {
+    }
+
+    /**
+     * A showtime as referenced by tickets.
+     */
+    private record ShowtimeKey(int id, String label) {
+    }
+
+    /**
+     * Assigns a dense int code to each distinct value.
+     */
+    private static final class Dictionary<T> {
+        private final List<T> aValues = new ArrayList<>();
+        private final HashMap<T, Integer> aCodes = new HashMap<>();
+
+        private int encode(T pValue) {
+            Integer code = aCodes.get(pValue);
+            if (code == null) {
+                code = aValues.size();
+                aValues.add(pValue);
+                aCodes.put(pValue, code);
+            }
+            return code;
+        }
+
+        private T decode(int pCode) {
+            return aValues.get(pCode);
+        }
+
+        private int size() {
+            return aValues.size();
+        }
+    }
+
+    private final Dictionary<MovieKey> aMovies = new Dictionary<>();
+    private final Dictionary<ShowtimeKey> aShowtimes = new Dictionary<>();
+    private final Dictionary<String> aSeats = new Dictionary<>();
+    private final Dictionary<String> aOtherIDs = new Dictionary<>();
+
+    private long[] aIDHigh = new long[INITIAL_CAPACITY];
+    private long[] aIDLow = new long[INITIAL_CAPACITY];
+    private long[] aPurchased = new long[INITIAL_CAPACITY];
+    private int[] aShowtimeCodes = new int[INITIAL_CAPACITY];
+    private int[] aMovieCodes = new int[INITIAL_CAPACITY];
+    private int[] aSeatCodes = new int[INITIAL_CAPACITY];
+    private boolean[] aRedeemed = new boolean[INITIAL_CAPACITY];
+    private int aSize;
+
+    /** Guards the id index and the redeemed flags against lookups from other threads. */
+    private final Object aLock = new Object();
+    /** Rows by hash of their id, probed linearly; {@link #EMPTY} marks a free slot. */
+    private int[] aIndex = emptyIndex(INITIAL_CAPACITY * 2);
+    private int aIndexed;
+    /** Rows not in the index because an earlier row has the same id. */
+    private int aUnindexed;
+
+    private final ConcurrentHashMap<Integer, Long> aSoldByMovie = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Long> aSoldByShowtime = new ConcurrentHashMap<>();
+    private final SalesRollup aRollup = new SalesRollup();
+
+    @Override
+    public int size() {
+        return aSize;
+    }
+
+    @Override
+    public Ticket get(int pIndex) {
+        checkIndex(pIndex);
+        MovieKey movie = aMovies.decode(aMovieCodes[pIndex]);
+        ShowtimeKey showtime = aShowtimes.decode(aShowtimeCodes[pIndex]);
+        long number = aIDHigh[pIndex] == NUMBERED ? aIDLow[pIndex] : 0;
+        return new Ticket(number, number != 0 ? null : ticketIDAt(pIndex), movie.id(), showtime.id(),
+                movie.name(), showtime.label(),
+                aSeatCodes[pIndex] < 0 ? null : aSeats.decode(aSeatCodes[pIndex]),
+                aPurchased[pIndex] == NO_TIME ? null : LocalDateTime.ofEpochSecond(aPurchased[pIndex], 0, ZoneOffset.UTC));
+    }
+
+    /**
+     * Finds a ticket by its identifier through the id index, without building any ticket.
+     *
+     * @param pTicketID the ticket identifier
+     * @return the index of a ticket with that identifier, or -1 if there is none
+     */
+    public int indexOfTicket(String pTicketID) {
+        synchronized (aLock) {
+            return rowOf(pTicketID);
+        }
+    }
+
+    @Override
+    public int indexOf(Object pObject) {
+        if (!(pObject instanceof Ticket ticket)) {
+            return -1;
+        }
+        if (ticket.getTicketNumber() <= 0) {
+            return indexOfTicket(ticket.getaTicketID());
+        }
+        synchronized (aLock) {
+            return find(NUMBERED, ticket.getTicketNumber());
+        }
+    }
+
+    /**
+     * Finds a ticket by its identifier, in constant time. May be called from any thread.
+     *
+     * @param pTicketID the ticket identifier
+     * @return the ticket, or null if there is none
+     */
+    public Ticket findTicket(String pTicketID) {
+        synchronized (aLock) {
+            int row = rowOf(pTicketID);
+            return row < 0 ? null : get(row);
+        }
+    }
+
+    /**
+     * Checks a ticket without using it. May be called from any thread.
+     *
+     * @param pTicketID the scanned ticket identifier
+     * @return {@link Admission#ADMIT} if the ticket exists and was not used yet
+     */
+    public Admission validate(String pTicketID) {
+        synchronized (aLock) {
+            int row = rowOf(pTicketID);
+            if (row < 0) {
+                return Admission.UNKNOWN;
+            }
+            return aRedeemed[row] ? Admission.ALREADY_USED : Admission.ADMIT;
+        }
+    }
+
+    /**
+     * Checks a ticket and marks it used in one atomic step, so two scanners can never
+     * both admit the same ticket. May be called from any thread.
+     *
+     * @param pTicketID the scanned ticket identifier
+     * @return {@link Admission#ADMIT} if the ticket was valid and is now used,
+     *         {@link Admission#ALREADY_USED} if it had been used before
+     */
+    public Admission redeem(String pTicketID) {
+        synchronized (aLock) {
+            int row = rowOf(pTicketID);
+            if (row < 0) {
+                return Admission.UNKNOWN;
+            }
+            if (aRedeemed[row]) {
+                return Admission.ALREADY_USED;
+            }
+            aRedeemed[row] = true;
+            return Admission.ADMIT;
+        }
+    }
+
+    /**
+     * Sets whether a ticket was used, e.g. to restore the admissions of an earlier run or to
+     * take back an admission that could not be journaled.
+     *
+     * @param pTicketID the ticket identifier
+     * @param pRedeemed whether the ticket was used
+     * @return true if the ticket is in the store
+     */
+    boolean setRedeemed(String pTicketID, boolean pRedeemed) {
+        synchronized (aLock) {
+            int row = rowOf(pTicketID);
+            if (row < 0) {
+                return false;
+            }
+            aRedeemed[row] = pRedeemed;
+            return true;
+        }
+    }
+
+    /**
+     * Looks an id up in the index. The caller holds the lock.
+     */
+    private int rowOf(String pTicketID) {
+        if (pTicketID == null) {
+            return -1;
+        }
+        long number = TicketIdGenerator.parse(pTicketID);
+        if (number > 0) {
+            int row = find(NUMBERED, number);
+            if (row >= 0) {
+                return row;
+            }
+        }
+        UUID uuid = asUUID(pTicketID);
+        if (uuid != null) {
+            return find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        }
+        Integer code = aOtherIDs.aCodes.get(pTicketID);
+        return code == null ? -1 : find(0, code);
+    }
+
+    @Override
+    public boolean contains(Object pObject) {
+        return indexOf(pObject) >= 0;
+    }
+
+    /**
+     * Counts the tickets of a movie by scanning the movie column.
+     *
+     * @param pMovieName the name of the movie
+     * @return the number of tickets for that movie
+     */
+    public long countByMovie(String pMovieName) {
+        boolean[] matches = new boolean[aMovies.size()];
+        for (int code = 0; code < matches.length; code++) {
+            matches[code] = pMovieName != null && pMovieName.equals(aMovies.decode(code).name());
+        }
+        return count(aMovieCodes, matches);
+    }
+
+    /**
+     * Counts the tickets of a showtime by scanning the showtime column.
+     *
+     * @param pShowtime the display string of the showtime
+     * @return the number of tickets for that showtime
+     */
+    public long countByShowtime(String pShowtime) {
+        boolean[] matches = new boolean[aShowtimes.size()];
+        for (int code = 0; code < matches.length; code++) {
+            matches[code] = pShowtime != null && pShowtime.equals(aShowtimes.decode(code).label());
+        }
+        return count(aShowtimeCodes, matches);
+    }
+
+    /**
+     * Adds tickets that are not in the store to the sales counters, e.g. the tickets of an
+     * archive opened at startup.
+     *
+     * @param pByMovie    the number of tickets by movie id
+     * @param pByShowtime the number of tickets by showtime id
+     */
+    void countSold(Map<Integer, Long> pByMovie, Map<Integer, Long> pByShowtime) {
+        pByMovie.forEach((movieID, sold) -> aSoldByMovie.compute(movieID, (key, old) -> add(old, sold)));
+        pByShowtime.forEach((showtimeID, sold) -> aSoldByShowtime.compute(showtimeID, (key, old) -> add(old, sold)));
+    }
+
+    /**
+     * Gets the number of tickets of a movie from the sales counters, in constant time.
+     * Archived tickets still count.
+     *
+     * @param pMovieID the id of the movie
+     * @return the number of tickets for that movie
+     */
+    public long getSoldByMovie(int pMovieID) {
+        return aSoldByMovie.getOrDefault(pMovieID, 0L);
+    }
+
+    /**
+     * Gets the number of tickets of a showtime from the sales counters, in constant time.
+     * Archived tickets still count.
+     *
+     * @param pShowtimeID the id of the showtime
+     * @return the number of tickets for that showtime
+     */
+    public long getSoldByShowtime(int pShowtimeID) {
+        return aSoldByShowtime.getOrDefault(pShowtimeID, 0L);
+    }
+
+    /**
+     * Copies the columns a {@link ReportEngine} reads, so the report can run on another thread.
+     *
+     * @return a copy of the movie, showtime and purchase time columns with their labels
+     */
+    ReportEngine.Columns columns() {
+        List<String> movieNames = new ArrayList<>(aMovies.size());
+        for (int code = 0; code < aMovies.size(); code++) {
+            movieNames.add(aMovies.decode(code).name());
+        }
+        List<String> showtimeLabels = new ArrayList<>(aShowtimes.size());
+        for (int code = 0; code < aShowtimes.size(); code++) {
+            showtimeLabels.add(aShowtimes.decode(code).label());
+        }
+        return new ReportEngine.Columns(aSize, Arrays.copyOf(aMovieCodes, aSize), Arrays.copyOf(aShowtimeCodes, aSize),
+                Arrays.copyOf(aPurchased, aSize), movieNames, showtimeLabels);
+    }
+
+    /**
+     * Passes every row to an exporter in order, without building tickets or id strings
+     * for numbered tickets.
+     *
+     * @param pWriter receives the rows
+     * @throws IOException if the writer fails
+     */
+    void forEachRow(TicketExporter.RowWriter pWriter) throws IOException {
+        for (int i = 0; i < aSize; i++) {
+            MovieKey movie = aMovies.decode(aMovieCodes[i]);
+            ShowtimeKey showtime = aShowtimes.decode(aShowtimeCodes[i]);
+            boolean numbered = aIDHigh[i] == NUMBERED;
+            pWriter.write(numbered ? aIDLow[i] : 0, numbered ? null : ticketIDAt(i), movie.name(), showtime.label(),
+                    aSeatCodes[i] < 0 ? null : aSeats.decode(aSeatCodes[i]), aPurchased[i]);
+        }
+    }
+
+    /**
+     * Gets the id of the showtime of a ticket without building the ticket.
+     *
+     * @param pIndex the index of the ticket
+     * @return the showtime id
+     */
+    int showtimeIDAt(int pIndex) {
+        checkIndex(pIndex);
+        return aShowtimes.decode(aShowtimeCodes[pIndex]).id();
+    }
+
+    /**
+     * Removes every ticket of some showtimes after they were archived, in one pass over
+     * the columns and with a single change notification. The sales counters and rollup
+     * keep the archived tickets, which were still sold, except those the archive already
+     * held and counted before. The columns shrink when most of the store was archived.
+     *
+     * @param pShowtimeIDs     the ids of the showtimes
+     * @param pAlreadyArchived ids of tickets that were in the archive before
+     * @return the number of tickets removed
+     */
+    int removeArchived(Set<Integer> pShowtimeIDs, Set<String> pAlreadyArchived) {
+        boolean[] matches = new boolean[aShowtimes.size()];
+        for (int code = 0; code < matches.length; code++) {
+            matches[code] = pShowtimeIDs.contains(aShowtimes.decode(code).id());
+        }
+        beginChange();
+        try {
+            synchronized (aLock) {
+                int kept = 0;
+                for (int i = 0; i < aSize; i++) {
+                    if (matches[aShowtimeCodes[i]]) {
+                        Ticket ticket = get(i);
+                        nextRemove(kept, ticket);
+                        if (pAlreadyArchived.contains(ticket.getaTicketID())) {
+                            count(i, -1);
+                        }
+                    } else {
+                        if (kept != i) {
+                            shift(i, kept, 1);
+                        }
+                        kept++;
+                    }
+                }
+                int removed = aSize - kept;
+                aSize = kept;
+                if (removed > 0) {
+                    modCount++;
+                    if (aSize < aIDHigh.length / 4) {
+                        resize(Math.max(INITIAL_CAPACITY, aSize + (aSize >> 1)));
+                    }
+                    rebuildIndex();
+                }
+                return removed;
+            }
+        } finally {
+            endChange();
+        }
+    }
+
+    /**
+     * Gets the sales per hour, day and week of purchase, kept up to date with the store.
+     *
+     * @return the sales rollup
+     */
+    public SalesRollup getRollup() {
+        return aRollup;
+    }
+
+    @Override
+    protected void doAdd(int pIndex, Ticket pTicket) {
+        if (pTicket == null) {
+            throw new IllegalArgumentException("Ticket cannot be null");
+        }
+        if (pIndex < 0 || pIndex > aSize) {
+            throw new IndexOutOfBoundsException(pIndex);
+        }
+        synchronized (aLock) {
+            if (aSize == aIDHigh.length) {
+                grow();
+            }
+            int moved = aSize - pIndex;
+            if (moved > 0) {
+                shift(pIndex, pIndex + 1, moved);
+                // From the end, so a row's new number is free in the index when it moves there
+                for (int row = aSize; row > pIndex; row--) {
+                    relocate(row - 1, row);
+                }
+            }
+            write(pIndex, pTicket);
+            aSize++;
+            index(pIndex);
+        }
+        count(pIndex, 1);
+    }
+
+    @Override
+    protected Ticket doSet(int pIndex, Ticket pTicket) {
+        if (pTicket == null) {
+            throw new IllegalArgumentException("Ticket cannot be null");
+        }
+        Ticket previous = get(pIndex);
+        count(pIndex, -1);
+        synchronized (aLock) {
+            long high = aIDHigh[pIndex];
+            long low = aIDLow[pIndex];
+            boolean redeemed = aRedeemed[pIndex];
+            unindex(pIndex);
+            write(pIndex, pTicket);
+            // Rewriting a ticket under the same id does not make it unused again
+            aRedeemed[pIndex] = redeemed && aIDHigh[pIndex] == high && aIDLow[pIndex] == low;
+            index(pIndex);
+        }
+        count(pIndex, 1);
+        return previous;
+    }
+
+    @Override
+    protected Ticket doRemove(int pIndex) {
+        Ticket removed = get(pIndex);
+        count(pIndex, -1);
+        synchronized (aLock) {
+            unindex(pIndex);
+            int moved = aSize - pIndex - 1;
+            if (moved > 0) {
+                shift(pIndex + 1, pIndex, moved);
+                for (int row = pIndex; row < aSize - 1; row++) {
+                    relocate(row + 1, row);
+                }
+            }
+            aSize--;
+        }
+        return removed;
+    }
+
+    /**
+     * Removes a range of tickets with one move of the rows behind it, instead of one per
+     * removed ticket.
+     */
+    @Override
+    protected void removeRange(int pFrom, int pTo) {
+        if (pFrom < 0 || pTo > aSize || pFrom > pTo) {
+            throw new IndexOutOfBoundsException("Range [" + pFrom + ", " + pTo + ") out of bounds for size " + aSize);
+        }
+        if (pFrom == pTo) {
+            return;
+        }
+        List<Ticket> removed = new ArrayList<>(pTo - pFrom);
+        for (int row = pFrom; row < pTo; row++) {
+            removed.add(get(row));
+            count(row, -1);
+        }
+        beginChange();
+        try {
+            synchronized (aLock) {
+                for (int row = pFrom; row < pTo; row++) {
+                    unindex(row, pFrom, pTo);
+                }
+                int moved = aSize - pTo;
+                shift(pTo, pFrom, moved);
+                for (int row = pFrom; row < pFrom + moved; row++) {
+                    relocate(row + pTo - pFrom, row);
+                }
+                aSize -= pTo - pFrom;
+            }
+            modCount++;
+            nextRemove(pFrom, removed);
+        } finally {
+            endChange();
+        }
+    }
+
+    private void write(int pIndex, Ticket pTicket) {
+        String id = pTicket.getTicketNumber() > 0 ? null : pTicket.getaTicketID();
+        UUID uuid = asUUID(id);
+        if (pTicket.getTicketNumber() > 0) {
+            aIDHigh[pIndex] = NUMBERED;
+            aIDLow[pIndex] = pTicket.getTicketNumber();
+        } else if (uuid != null) {
+            aIDHigh[pIndex] = uuid.getMostSignificantBits();
+            aIDLow[pIndex] = uuid.getLeastSignificantBits();
+        } else {
+            // Ids that are not UUIDs are rare (e.g. imported samples), so they are kept once in a dictionary
+            aIDHigh[pIndex] = 0;
+            aIDLow[pIndex] = id == null ? -1 : aOtherIDs.encode(id);
+        }
+        aPurchased[pIndex] = pTicket.getaPurchaseDateTime() == null
+                ? NO_TIME : pTicket.getaPurchaseDateTime().toEpochSecond(ZoneOffset.UTC);
+        aMovieCodes[pIndex] = aMovies.encode(new MovieKey(pTicket.getMovieID(), pTicket.getName()));
+        aShowtimeCodes[pIndex] = aShowtimes.encode(new ShowtimeKey(pTicket.getShowtimeID(), pTicket.getTime()));
+        aSeatCodes[pIndex] = pTicket.getSeat() == null ? -1 : aSeats.encode(pTicket.getSeat());
+        aRedeemed[pIndex] = false;
+    }
+
+    /**
+     * Finds the row holding an id in the index.
+     */
+    private int find(long pHigh, long pLow) {
+        int mask = aIndex.length - 1;
+        for (int slot = hash(pHigh, pLow) & mask; aIndex[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int row = aIndex[slot];
+            if (aIDLow[row] == pLow && aIDHigh[row] == pHigh) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds a freshly written row to the index, unless an earlier row has the same id.
+     */
+    private void index(int pRow) {
+        if (!hasID(pRow)) {
+            return;
+        }
+        if (find(aIDHigh[pRow], aIDLow[pRow]) >= 0) {
+            aUnindexed++;
+            return;
+        }
+        if ((aIndexed + 1) * 2 > aIndex.length) {
+            // The rebuild indexes every row, this one included
+            aIndex = emptyIndex(aIndex.length * 2);
+            rebuildIndex();
+            return;
+        }
+        insert(pRow);
+    }
+
+    private void insert(int pRow) {
+        int mask = aIndex.length - 1;
+        int slot = hash(aIDHigh[pRow], aIDLow[pRow]) & mask;
+        while (aIndex[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        aIndex[slot] = pRow;
+        aIndexed++;
+    }
+
+    /**
+     * Takes a row out of the index before it is overwritten or removed. If another row
+     * has the same id, it takes the place of the removed one.
+     */
+    private void unindex(int pRow) {
+        unindex(pRow, pRow, pRow + 1);
+    }
+
+    /**
+     * Takes a row out of the index while the rows from pFrom to pTo are being removed;
+     * only a row outside of them can take its place.
+     */
+    private void unindex(int pRow, int pFrom, int pTo) {
+        if (!hasID(pRow)) {
+            return;
+        }
+        int mask = aIndex.length - 1;
+        int slot = hash(aIDHigh[pRow], aIDLow[pRow]) & mask;
+        while (aIndex[slot] != pRow) {
+            if (aIndex[slot] == EMPTY) {
+                // A duplicate id that was never indexed
+                aUnindexed--;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        // Backward-shift deletion keeps every probe sequence unbroken without tombstones
+        int free = slot;
+        for (int next = (free + 1) & mask; aIndex[next] != EMPTY; next = (next + 1) & mask) {
+            int row = aIndex[next];
+            int home = hash(aIDHigh[row], aIDLow[row]) & mask;
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                aIndex[free] = row;
+                free = next;
+            }
+        }
+        aIndex[free] = EMPTY;
+        aIndexed--;
+        if (aUnindexed > 0) {
+            for (int row = 0; row < aSize; row++) {
+                if ((row < pFrom || row >= pTo) && aIDLow[row] == aIDLow[pRow] && aIDHigh[row] == aIDHigh[pRow]) {
+                    insert(row);
+                    aUnindexed--;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the index after the row at pFrom was moved to pTo.
+     */
+    private void relocate(int pFrom, int pTo) {
+        if (!hasID(pTo)) {
+            return;
+        }
+        int mask = aIndex.length - 1;
+        for (int slot = hash(aIDHigh[pTo], aIDLow[pTo]) & mask; aIndex[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (aIndex[slot] == pFrom) {
+                aIndex[slot] = pTo;
+                return;
+            }
+        }
+    }
+
+    private void rebuildIndex() {
+        int length = aIndex.length;
+        while (length > INITIAL_CAPACITY * 2 && aSize * 4 < length) {
+            length >>= 1;
+        }
+        while (aSize * 2 > length) {
+            length <<= 1;
+        }
+        aIndex = emptyIndex(length);
+        aIndexed = 0;
+        aUnindexed = 0;
+        for (int row = 0; row < aSize; row++) {
+            if (hasID(row)) {
+                if (find(aIDHigh[row], aIDLow[row]) >= 0) {
+                    aUnindexed++;
+                } else {
+                    insert(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tells if a row has an id; tickets without one are not indexed.
+     */
+    private boolean hasID(int pRow) {
+        return aIDHigh[pRow] != 0 || aIDLow[pRow] >= 0;
+    }
+
+    private static int hash(long pHigh, long pLow) {
+        long hash = pHigh * 0x9E3779B97F4A7C15L ^ pLow;
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        return (int) (hash ^ (hash >>> 33));
+    }
+
+    private static int[] emptyIndex(int pLength) {
+        int[] index = new int[pLength];
+        Arrays.fill(index, EMPTY);
+        return index;
+    }
+
+    /**
+     * Reads a ticket id as a UUID if it is one in canonical form whose upper half is not
+     * one of the markers 0 or {@link #NUMBERED}.
+     *
+     * @return the UUID, or null if the id has to go through the dictionary
+     */
+    private static UUID asUUID(String pTicketID) {
+        if (pTicketID == null || pTicketID.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(pTicketID);
+            long high = uuid.getMostSignificantBits();
+            return high != 0 && high != NUMBERED && uuid.toString().equals(pTicketID) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private String ticketIDAt(int pIndex) {
+        if (aIDHigh[pIndex] == NUMBERED) {
+            return TicketIdGenerator.format(aIDLow[pIndex]);
+        }
+        if (aIDHigh[pIndex] != 0) {
+            return new UUID(aIDHigh[pIndex], aIDLow[pIndex]).toString();
+        }
+        return aIDLow[pIndex] < 0 ? null : aOtherIDs.decode((int) aIDLow[pIndex]);
+    }
+
+    /**
+     * Updates the sales counters and the rollup for a row.
+     */
+    private void count(int pIndex, long pDelta) {
+        int movieID = aMovies.decode(aMovieCodes[pIndex]).id();
+        int showtimeID = aShowtimes.decode(aShowtimeCodes[pIndex]).id();
+        if (movieID > 0) {
+            aSoldByMovie.compute(movieID, (key, sold) -> add(sold, pDelta));
+        }
+        if (showtimeID > 0) {
+            aSoldByShowtime.compute(showtimeID, (key, sold) -> add(sold, pDelta));
+        }
+        if (aPurchased[pIndex] != NO_TIME) {
+            aRollup.record(aPurchased[pIndex], pDelta);
+        }
+    }
+
+    /**
+     * Applies a change to a counter, dropping counters that reach zero.
+     */
+    private static Long add(Long pSold, long pDelta) {
+        long total = (pSold == null ? 0 : pSold) + pDelta;
+        return total <= 0 ? null : total;
+    }
+
+    private long count(int[] pColumn, boolean[] pMatches) {
+        long count = 0;
+        for (int i = 0; i < aSize; i++) {
+            if (pMatches[pColumn[i]]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void shift(int pFrom, int pTo, int pLength) {
+        System.arraycopy(aIDHigh, pFrom, aIDHigh, pTo, pLength);
+        System.arraycopy(aIDLow, pFrom, aIDLow, pTo, pLength);
+        System.arraycopy(aPurchased, pFrom, aPurchased, pTo, pLength);
+        System.arraycopy(aShowtimeCodes, pFrom, aShowtimeCodes, pTo, pLength);
+        System.arraycopy(aMovieCodes, pFrom, aMovieCodes, pTo, pLength);
+        System.arraycopy(aSeatCodes, pFrom, aSeatCodes, pTo, pLength);
+        System.arraycopy(aRedeemed, pFrom, aRedeemed, pTo, pLength);
+    }
+
+    private void grow() {
+        resize(aIDHigh.length + (aIDHigh.length >> 1));
+    }
+
+    private void resize(int capacity) {
+        aIDHigh = Arrays.copyOf(aIDHigh, capacity);
+        aIDLow = Arrays.copyOf(aIDLow, capacity);
+        aPurchased = Arrays.copyOf(aPurchased, capacity);
+        aShowtimeCodes = Arrays.copyOf(aShowtimeCodes, capacity);
+        aMovieCodes = Arrays.copyOf(aMovieCodes, capacity);
+        aSeatCodes = Arrays.copyOf(aSeatCodes, capacity);
+        aRedeemed = Arrays.copyOf(aRedeemed, capacity);
+    }
+
+    private void checkIndex(int pIndex) {
+        if (pIndex < 0 || pIndex >= aSize) {
+            throw new IndexOutOfBoundsException(pIndex);
+        }
+    }
+}
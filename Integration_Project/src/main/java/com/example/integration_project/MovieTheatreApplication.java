@@ -1,28 +1,109 @@
 package com.example.integration_project;
 
+import com.example.integration_project.Helpers.AlertHelper;
+import com.example.integration_project.Helpers.FxBookingBridge;
+import com.example.integration_project.Helpers.FxCatalogAdapter;
 import com.example.integration_project.Helpers.ImportHelper;
 import com.example.integration_project.Model.*;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class MovieTheatreApplication extends Application {
+    /** How long after its start a showtime's tickets move to the archive. */
+    private static final Duration ARCHIVE_AFTER = Duration.ofDays(1);
+
+    /** How often past showtimes are looked for while the app runs. */
+    private static final Duration ARCHIVE_EVERY = Duration.ofHours(1);
+
+    private BookingJournal journal;
+    private TicketArchive archive;
+    private ScheduledExecutorService archiver;
+
     @Override
     public void start(Stage stage) throws IOException {
         FXMLLoader fxmlLoader = new FXMLLoader(MovieTheatreApplication.class.getResource("login-view.fxml"));
         Scene scene = new Scene(fxmlLoader.load(), 413, 400);
 
+        // The list views show the catalogs through FX-thread mirrors
+        FxCatalogAdapter.bind(MovieManager.getCatalog(), MovieManager.getMovies());
+        FxCatalogAdapter.bind(ShowroomManager.getCatalog(), ShowroomManager.getShowroom());
+        FxCatalogAdapter.bind(ShowtimeManager.getCatalog(), ShowtimeManager.getShowtime());
+
         //Loading the imports
         ImportHelper.loadMovies();
         ImportHelper.loadShowroom();
         ImportHelper.loadShowtime();
         ImportHelper.loadTickets();
 
+        // Booking logic runs headless; tickets reach the UI through the bridge
+        BookingService bookings = BookingService.getInstance();
+        bookings.setCatalog(ShowtimeManager.getCatalog()::snapshot,
+                ShowtimeManager.getShowtimeManagerInstance()::getShowtimes);
+        bookings.addListener(new FxBookingBridge());
+
+        // Replay the bookings and admissions of earlier runs, then journal every new one
+        archive = new TicketArchive(Path.of(System.getProperty("theatre.archive", "ticket-archive")));
+        journal = new BookingJournal(Path.of(System.getProperty("theatre.journal", "bookings.journal")),
+                Duration.ofMillis(1));
+        bookings.recover(journal, archive);
+        bookings.setJournal(journal);
+        TicketManager.getInstance().setJournal(journal);
+
+        // Tickets of past showtimes leave the heap for the archive. Showtimes only become
+        // past while the app runs, so the check repeats; the ticket list belongs to the FX thread
+        TicketManager.getInstance().setArchive(archive);
+        archiver = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "ticket-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        archiver.scheduleAtFixedRate(() -> Platform.runLater(this::archivePastShowtimes),
+                0, ARCHIVE_EVERY.toMillis(), TimeUnit.MILLISECONDS);
+
         stage.setTitle("Login/Sign Up");
         stage.setScene(scene);
         stage.show();
     }
+
+    /**
+     * Moves the tickets of showtimes that started more than {@code ARCHIVE_AFTER} ago into
+     * the archive and forgets their bookings. Runs on the FX thread. After a failure,
+     * archiving stops until the next start: an archive that failed to write is closed.
+     */
+    private void archivePastShowtimes() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ARCHIVE_AFTER);
+        try {
+            TicketManager.getInstance().archiveBefore(cutoff);
+            BookingService.getInstance().retire(cutoff);
+        } catch (IOException | RuntimeException e) {
+            archiver.shutdown();
+            AlertHelper.showErrorAlert("Archive Error", "Failed to archive past tickets", e.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() throws IOException {
+        if (archiver != null) {
+            archiver.shutdownNow();
+        }
+        if (journal != null) {
+            BookingService.getInstance().setJournal(null);
+            TicketManager.getInstance().setJournal(null);
+            journal.close();
+        }
+        if (archive != null) {
+            archive.close();
+        }
+    }
 }
@@ -0,0 +1,298 @@
+package com.example.integration_project.Model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that the {@link BookingJournal} never loses acknowledged records, also when a
+ * write or an fsync fails halfway.
+ *
+ * @author Dieudonné
+ * @version 1.0
+ */
+class BookingJournalTest {
+
+    @TempDir
+    Path aDirectory;
+
+    private Path aPath;
+    private Showtime aShowtime;
+
+    @BeforeEach
+    void setUp() {
+        aPath = aDirectory.resolve("bookings.journal");
+        aShowtime = new Showtime(new Movie("Journal Test"), LocalDateTime.now().plusDays(30).withNano(0),
+                new Showroom(1, 20));
+    }
+
+    @Test
+    void shortWriteIsCutOffSoLaterRecordsSurvive() throws IOException {
+        FaultyChannel channel = FaultyChannel.open(aPath);
+        try (BookingJournal journal = new BookingJournal(aPath, Duration.ZERO, channel)) {
+            issue(journal, "A", 0).join();
+            channel.aShortWrites = 1;
+            CompletionException failed = assertThrows(CompletionException.class, () -> issue(journal, "B", 1).join());
+            assertTrue(failed.getCause().getCause() instanceof IOException);
+            issue(journal, "C", 2).join();
+            journal.appendCancelled("A").join();
+        }
+        assertEquals(List.of("A+", "C+", "A-"), replay());
+    }
+
+    @Test
+    void failedForceIsCutOffSoLaterRecordsSurvive() throws IOException {
+        FaultyChannel channel = FaultyChannel.open(aPath);
+        try (BookingJournal journal = new BookingJournal(aPath, Duration.ZERO, channel)) {
+            issue(journal, "A", 0).join();
+            channel.aFailedForces = 1;
+            assertThrows(CompletionException.class, () -> issue(journal, "B", 1).join());
+            issue(journal, "C", 2).join();
+        }
+        assertEquals(List.of("A+", "C+"), replay());
+    }
+
+    @Test
+    void journalRefusesRecordsWhenTornRecordCannotBeCutOff() throws IOException {
+        FaultyChannel channel = FaultyChannel.open(aPath);
+        try (BookingJournal journal = new BookingJournal(aPath, Duration.ZERO, channel)) {
+            issue(journal, "A", 0).join();
+            channel.aShortWrites = 1;
+            channel.aFailTruncate = true;
+            assertThrows(CompletionException.class, () -> issue(journal, "B", 1).join());
+            channel.aFailTruncate = false;
+            CompletionException refused = assertThrows(CompletionException.class, () -> issue(journal, "C", 2).join());
+            assertTrue(refused.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(List.of("A+"), replay());
+    }
+
+    /**
+     * Fails a group booking halfway through its write, with a file that cannot be cut
+     * back, as if the machine stopped there: none of its tickets may come back.
+     */
+    @Test
+    void halfWrittenGroupBookingIsNotRecovered() throws IOException {
+        FaultyChannel channel = FaultyChannel.open(aPath);
+        try (BookingJournal journal = new BookingJournal(aPath, Duration.ZERO, channel)) {
+            issue(journal, "A", 0).join();
+            LocalDateTime now = LocalDateTime.now().withNano(0);
+            List<Ticket> group = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                group.add(new Ticket("G" + i, aShowtime, "B" + (i + 1), now));
+            }
+            channel.aShortWrites = 1;
+            channel.aFailTruncate = true;
+            assertThrows(CompletionException.class,
+                    () -> journal.appendIssued(aShowtime, group, new int[] {1, 2, 3, 4}).join());
+        }
+        assertEquals(List.of("A+"), replay());
+
+        BookingService bookings = BookingService.getInstance();
+        bookings.setCatalog(() -> List.of(aShowtime));
+        try (BookingJournal journal = new BookingJournal(aPath, Duration.ZERO)) {
+            assertEquals(1, bookings.recover(journal));
+        }
+        assertEquals(1, aShowtime.getShowroom().getBookedSeats(aShowtime));
+    }
+
+    @Test
+    void groupBookingIsReplayedTicketByTicket() throws IOException {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        try (BookingJournal journal = new BookingJournal(aPath, Duration.ZERO)) {
+            journal.appendIssued(aShowtime, List.of(new Ticket("G1", aShowtime, "A2", now),
+                    new Ticket("G2", aShowtime, "A3", now)), new int[] {1, 2}).join();
+        }
+        List<BookingJournal.Record> records = new ArrayList<>();
+        try (BookingJournal journal = new BookingJournal(aPath, Duration.ZERO)) {
+            journal.replay(records::add);
+        }
+        assertEquals(List.of(
+                new BookingJournal.Record(BookingJournal.ISSUED, "G1", 1, aShowtime.getShowtime(), 1, now),
+                new BookingJournal.Record(BookingJournal.ISSUED, "G2", 1, aShowtime.getShowtime(), 2, now)), records);
+    }
+
+    @Test
+    void tornTailIsCutOffOnOpen() throws IOException {
+        try (BookingJournal journal = new BookingJournal(aPath, Duration.ZERO)) {
+            issue(journal, "A", 0).join();
+        }
+        long valid = Files.size(aPath);
+        Files.write(aPath, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        try (BookingJournal journal = new BookingJournal(aPath, Duration.ZERO)) {
+            assertEquals(valid, Files.size(aPath));
+            issue(journal, "B", 1).join();
+        }
+        assertEquals(List.of("A+", "B+"), replay());
+    }
+
+    @Test
+    void redemptionsAreReplayed() throws IOException {
+        try (BookingJournal journal = new BookingJournal(aPath, Duration.ZERO)) {
+            issue(journal, "A", 0).join();
+            journal.appendRedeemed("A").join();
+            journal.appendCancelled("A").join();
+        }
+        assertEquals(List.of("A+", "A*", "A-"), replay());
+    }
+
+    private CompletableFuture<Void> issue(BookingJournal pJournal, String pTicketID, int pSeat) {
+        Ticket ticket = new Ticket(pTicketID, aShowtime, "A" + (pSeat + 1), LocalDateTime.now().withNano(0));
+        return pJournal.appendIssued(aShowtime, List.of(ticket), new int[] {pSeat});
+    }
+
+    /**
+     * Reopens the journal and lists its records as the ticket id followed by + for an
+     * issued, - for a cancelled and * for a redeemed ticket.
+     */
+    private List<String> replay() throws IOException {
+        List<String> records = new ArrayList<>();
+        try (BookingJournal journal = new BookingJournal(aPath, Duration.ZERO)) {
+            journal.replay(r -> records.add(r.ticketID()
+                    + (r.type() == BookingJournal.ISSUED ? "+" : r.type() == BookingJournal.REDEEMED ? "*" : "-")));
+        }
+        return records;
+    }
+
+    /**
+     * A file channel that can fail its next writes halfway, its next fsyncs and its truncations.
+     */
+    private static final class FaultyChannel extends FileChannel {
+        private final FileChannel aFile;
+        private volatile int aShortWrites;
+        private volatile int aFailedForces;
+        private volatile boolean aFailTruncate;
+
+        private FaultyChannel(FileChannel pFile) {
+            aFile = pFile;
+        }
+
+        static FaultyChannel open(Path pPath) throws IOException {
+            return new FaultyChannel(FileChannel.open(pPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE));
+        }
+
+        @Override
+        public int write(ByteBuffer pSource) throws IOException {
+            if (aShortWrites > 0) {
+                aShortWrites--;
+                ByteBuffer half = pSource.duplicate();
+                half.limit(half.position() + half.remaining() / 2);
+                int written = aFile.write(half);
+                pSource.position(pSource.position() + written);
+                throw new IOException("Disk full after " + written + " bytes");
+            }
+            return aFile.write(pSource);
+        }
+
+        @Override
+        public void force(boolean pMetaData) throws IOException {
+            if (aFailedForces > 0) {
+                aFailedForces--;
+                throw new IOException("fsync failed");
+            }
+            aFile.force(pMetaData);
+        }
+
+        @Override
+        public FileChannel truncate(long pSize) throws IOException {
+            if (aFailTruncate) {
+                throw new IOException("truncate failed");
+            }
+            aFile.truncate(pSize);
+            return this;
+        }
+
+        @Override
+        public int read(ByteBuffer pTarget) throws IOException {
+            return aFile.read(pTarget);
+        }
+
+        @Override
+        public long read(ByteBuffer[] pTargets, int pOffset, int pLength) throws IOException {
+            return aFile.read(pTargets, pOffset, pLength);
+        }
+
+        @Override
+        public long write(ByteBuffer[] pSources, int pOffset, int pLength) throws IOException {
+            return aFile.write(pSources, pOffset, pLength);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return aFile.position();
+        }
+
+        @Override
+        public FileChannel position(long pPosition) throws IOException {
+            aFile.position(pPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return aFile.size();
+        }
+
+        @Override
+        public long transferTo(long pPosition, long pCount, WritableByteChannel pTarget) throws IOException {
+            return aFile.transferTo(pPosition, pCount, pTarget);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel pSource, long pPosition, long pCount) throws IOException {
+            return aFile.transferFrom(pSource, pPosition, pCount);
+        }
+
+        @Override
+        public int read(ByteBuffer pTarget, long pPosition) throws IOException {
+            return aFile.read(pTarget, pPosition);
+        }
+
+        @Override
+        public int write(ByteBuffer pSource, long pPosition) throws IOException {
+            return aFile.write(pSource, pPosition);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode pMode, long pPosition, long pSize) throws IOException {
+            return aFile.map(pMode, pPosition, pSize);
+        }
+
+        @Override
+        public FileLock lock(long pPosition, long pSize, boolean pShared) throws IOException {
+            return aFile.lock(pPosition, pSize, pShared);
+        }
+
+        @Override
+        public FileLock tryLock(long pPosition, long pSize, boolean pShared) throws IOException {
+            return aFile.tryLock(pPosition, pSize, pShared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            aFile.close();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.integration_project.Model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that the {@link BookingService} books each request once and rebuilds bookings and
+ * admissions from its journal.
+ *
+ * @author Dieudonné
+ * @version 1.0
+ */
+class BookingServiceTest {
+
+    @TempDir
+    Path aDirectory;
+
+    @Test
+    void admissionsSurviveARestart() throws IOException {
+        Showtime showtime = new Showtime(new Movie("Recover Test"), LocalDateTime.now().plusDays(30).withNano(0),
+                new Showroom(7, 20));
+        LocalDateTime purchased = LocalDateTime.now().withNano(0);
+        Ticket used = new Ticket("R-USED", showtime, "A1", purchased);
+        Ticket cancelled = new Ticket("R-CANCELLED", showtime, "A2", purchased);
+        Ticket imported = new Ticket("R-IMPORTED", showtime, "A3", purchased);
+        Path path = aDirectory.resolve("bookings.journal");
+
+        TicketManager tickets = TicketManager.getInstance();
+        try (BookingJournal journal = new BookingJournal(path, Duration.ZERO)) {
+            journal.appendIssued(showtime, List.of(used, cancelled), new int[] {0, 1}).join();
+            tickets.addTickets(List.of(used, cancelled, imported));
+            tickets.setJournal(journal);
+            assertEquals(TicketStore.Admission.ADMIT, tickets.redeemTicket("R-USED"));
+            assertEquals(TicketStore.Admission.ADMIT, tickets.redeemTicket("R-CANCELLED"));
+            assertEquals(TicketStore.Admission.ADMIT, tickets.redeemTicket("R-IMPORTED"));
+            journal.appendCancelled("R-CANCELLED").join();
+        } finally {
+            tickets.setJournal(null);
+        }
+
+        // After a restart the tickets are back, but unused
+        tickets.getTickets().removeAll(List.of(used, cancelled, imported));
+        tickets.addTicket(imported);
+        Set<String> redeemed = new HashSet<>();
+        BookingService.BookingListener listener = new BookingService.BookingListener() {
+            @Override
+            public void ticketsIssued(List<Ticket> pTickets) {
+                tickets.addTickets(pTickets);
+            }
+
+            @Override
+            public void ticketCancelled(Ticket pTicket) {
+            }
+
+            @Override
+            public void ticketsRedeemed(Set<String> pTicketIDs) {
+                redeemed.addAll(pTicketIDs);
+                tickets.restoreRedeemed(pTicketIDs);
+            }
+        };
+        BookingService bookings = BookingService.getInstance();
+        bookings.setCatalog(() -> List.of(showtime));
+        bookings.addListener(listener);
+        try (BookingJournal journal = new BookingJournal(path, Duration.ZERO)) {
+            assertEquals(1, bookings.recover(journal));
+        } finally {
+            bookings.removeListener(listener);
+        }
+
+        assertEquals(Set.of("R-USED", "R-IMPORTED"), redeemed);
+        assertEquals(TicketStore.Admission.ALREADY_USED, tickets.redeemTicket("R-USED"));
+        assertEquals(TicketStore.Admission.ALREADY_USED, tickets.redeemTicket("R-IMPORTED"));
+    }
+
+    /**
+     * Books twice in a row on one selection, as the client dashboard does for two customers:
+     * each booking has its own key, so the second one gets seats of its own. Only a retry
+     * with the same key gets the first tickets back, and its hold is released.
+     */
+    @Test
+    void consecutiveBookingsOnOneSelectionBookSeparateSeats() {
+        Showtime showtime = new Showtime(new Movie("Kiosk Test"), LocalDateTime.now().plusDays(30).withNano(0),
+                new Showroom(8, 20));
+        BookingService bookings = BookingService.getInstance();
+        String firstRequest = UUID.randomUUID().toString();
+        List<Ticket> first = bookings.confirm(firstRequest, bookings.hold(showtime, 2, Duration.ofMinutes(5)));
+
+        SeatHold retry = bookings.hold(showtime, 2, Duration.ofMinutes(5));
+        assertSame(first, bookings.confirm(firstRequest, retry));
+        assertEquals(SeatHold.Status.RELEASED, retry.getStatus());
+        assertEquals(2, showtime.getShowroom().getBookedSeats(showtime));
+
+        List<Ticket> second = bookings.confirm(UUID.randomUUID().toString(),
+                bookings.hold(showtime, 2, Duration.ofMinutes(5)));
+        assertEquals(2, second.size());
+        assertNotEquals(first.get(0).getaTicketID(), second.get(0).getaTicketID());
+        assertNotEquals(first.get(0).getSeat(), second.get(0).getSeat());
+        assertEquals(4, showtime.getShowroom().getBookedSeats(showtime));
+    }
+}
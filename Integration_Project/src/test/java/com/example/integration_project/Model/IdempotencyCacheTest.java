@@ -0,0 +1,99 @@
+package com.example.integration_project.Model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the {@link IdempotencyCache} runs an action at most once per key and keeps
+ * its bound without evicting results it still needs.
+ *
+ * @author Dieudonné
+ * @version 1.0
+ */
+class IdempotencyCacheTest {
+
+    @Test
+    void failedActionsDoNotEvictCachedResults() {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(3, Duration.ofMinutes(1));
+        for (String key : new String[] {"a", "b", "c"}) {
+            cache.execute(key, () -> key.toUpperCase());
+        }
+        for (int i = 0; i < 50; i++) {
+            assertThrows(IllegalStateException.class, () -> cache.execute("sold-out-" + Math.random(), () -> {
+                throw new IllegalStateException("Sold out");
+            }));
+        }
+        assertEquals("A", cache.getIfPresent("a"));
+        assertEquals("B", cache.getIfPresent("b"));
+        assertEquals("C", cache.getIfPresent("c"));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void failedActionCanBeRetried() {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(3, Duration.ofMinutes(1));
+        assertThrows(IllegalStateException.class, () -> cache.execute("k", () -> {
+            throw new IllegalStateException("Sold out");
+        }));
+        assertNull(cache.getIfPresent("k"));
+        assertEquals("ok", cache.execute("k", () -> "ok"));
+    }
+
+    @Test
+    void runningActionIsNeverEvicted() throws Exception {
+        IdempotencyCache<String> cache = new IdempotencyCache<>(1, Duration.ofMinutes(1));
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.execute("slow", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(finish);
+            return "first";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Pushes the cache past its maximum while "slow" is still running
+        cache.execute("x", () -> "x");
+        cache.execute("y", () -> "y");
+
+        CompletableFuture<String> retry = CompletableFuture.supplyAsync(() -> cache.execute("slow", () -> {
+            runs.incrementAndGet();
+            return "second";
+        }));
+        finish.countDown();
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        assertEquals("first", retry.get(5, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void finishedEntriesAreEvictedOldestFirst() {
+        IdempotencyCache<Integer> cache = new IdempotencyCache<>(2, Duration.ofMinutes(1));
+        cache.execute("1", () -> 1);
+        cache.execute("2", () -> 2);
+        cache.execute("3", () -> 3);
+        assertNull(cache.getIfPresent("1"));
+        assertEquals(2, cache.getIfPresent("2"));
+        assertEquals(3, cache.getIfPresent("3"));
+        assertEquals(2, cache.size());
+    }
+
+    private static void await(CountDownLatch pLatch) {
+        try {
+            pLatch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.integration_project.Model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the room number index of the {@link ShowroomManager} against a scan of the catalog.
+ *
+ * @author Dieudonné
+ * @version 1.0
+ */
+class ShowroomManagerTest {
+
+    private static final int FIRST_NUMBER = 9301;
+    private static final int NUMBERS = 40;
+
+    private final ShowroomManager aManager = ShowroomManager.getShowroomManagerInstance();
+    private final List<Showroom> aRooms = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        aManager.removeShowrooms(aRooms);
+    }
+
+    /**
+     * Adds, removes and renumbers showrooms at random, also straight through the catalog
+     * so numbers repeat, and checks every number of the range after each step.
+     */
+    @Test
+    void lookupsMatchBruteForce() {
+        Random random = new Random(23);
+        CatalogStore<Showroom> catalog = ShowroomManager.getCatalog();
+        for (int step = 0; step < 20_000; step++) {
+            int op = random.nextInt(100);
+            int number = FIRST_NUMBER + random.nextInt(NUMBERS);
+            if (aRooms.isEmpty() || op < 35) {
+                Showroom room = new Showroom(number, 50);
+                aRooms.add(room);
+                boolean taken = scan(number) != null;
+                assertEquals(taken, rejects(() -> aManager.addShowroom(room)), "add at step " + step);
+            } else if (op < 45) {
+                // Rooms added straight to the catalog may repeat a number
+                Showroom room = new Showroom(number, 50);
+                aRooms.add(room);
+                catalog.add(room);
+            } else if (op < 70) {
+                aManager.removeShowroom(aRooms.get(random.nextInt(aRooms.size())));
+            } else if (op < 75) {
+                List<Showroom> leaving = new ArrayList<>();
+                for (int i = random.nextInt(4); i >= 0; i--) {
+                    leaving.add(aRooms.get(random.nextInt(aRooms.size())));
+                }
+                aManager.removeShowrooms(leaving);
+            } else if (op < 97) {
+                Showroom room = aRooms.get(random.nextInt(aRooms.size()));
+                int old = room.getRoomNumber();
+                boolean listed = catalog.snapshot().stream().anyMatch(r -> r == room);
+                boolean taken = listed && number != old && scan(number) != null;
+                assertEquals(taken, rejects(() -> room.setRoomNumber(number)), "renumber at step " + step);
+                assertEquals(taken ? old : number, room.getRoomNumber());
+            } else {
+                // Keeps the rooms of other tests, reorders and drops some of ours
+                List<Showroom> kept = new ArrayList<>();
+                for (Showroom room : catalog.snapshot()) {
+                    if (!aRooms.contains(room) || random.nextInt(4) > 0) {
+                        kept.add(0, room);
+                    }
+                }
+                catalog.setAll(kept);
+            }
+            for (int n = FIRST_NUMBER; n < FIRST_NUMBER + NUMBERS; n++) {
+                Showroom found = aManager.findByNumber(n);
+                if (scan(n) == null) {
+                    assertNull(found, "room " + n + " at step " + step);
+                } else {
+                    assertTrue(found != null && found.getRoomNumber() == n
+                            && catalog.snapshot().contains(found), "room " + n + " at step " + step);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds a showroom of the catalog by number, checking every showroom.
+     */
+    private static Showroom scan(int pNumber) {
+        for (Showroom room : ShowroomManager.getCatalog().snapshot()) {
+            if (room.getRoomNumber() == pNumber) {
+                return room;
+            }
+        }
+        return null;
+    }
+
+    private static boolean rejects(Runnable pAction) {
+        try {
+            pAction.run();
+            return false;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+}
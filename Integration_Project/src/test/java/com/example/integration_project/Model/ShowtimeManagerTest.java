@@ -0,0 +1,253 @@
+package com.example.integration_project.Model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the indexes of the {@link ShowtimeManager} against brute-force scans of the
+ * showtimes they index.
+ *
+ * @author Dieudonné
+ * @version 1.0
+ */
+class ShowtimeManagerTest {
+
+    private static final Comparator<Showtime> START_ORDER =
+            Comparator.comparing(Showtime::getShowtime).thenComparingInt(Showtime::getId);
+
+    private final ShowtimeManager aManager = ShowtimeManager.getShowtimeManagerInstance();
+    private final List<Showtime> aScheduled = new ArrayList<>();
+    private LocalDateTime aBase;
+
+    @BeforeEach
+    void setUp() {
+        aBase = LocalDateTime.now().plusYears(3).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        aManager.removeShowtimes(aScheduled);
+    }
+
+    /**
+     * Adds, moves and removes showings at random and changes runtimes, and checks that
+     * exactly those that overlap another showing of their room are rejected.
+     */
+    @Test
+    void conflictsMatchBruteForce() {
+        Random random = new Random(21);
+        List<Showroom> rooms = List.of(new Showroom(9101, 50), new Showroom(9102, 50), new Showroom(9103, 50));
+        List<Movie> movies = List.of(new Movie("Conflict Short", Duration.ofMinutes(45)),
+                new Movie("Conflict Feature", Duration.ofMinutes(100)),
+                new Movie("Conflict Epic", Duration.ofMinutes(170)));
+        for (int step = 0; step < 20_000; step++) {
+            int op = random.nextInt(100);
+            Movie movie = movies.get(random.nextInt(movies.size()));
+            Showroom room = rooms.get(random.nextInt(rooms.size()));
+            LocalDateTime start = aBase.plusMinutes(5L * random.nextInt(2_000));
+            if (aScheduled.isEmpty() || op < 55) {
+                Showtime st = new Showtime(movie, start, room);
+                boolean clash = overlaps(movie, room, start, movie.getScreenTime(), null);
+                assertEquals(clash, rejects(() -> aManager.addShowtime(st)), "add at step " + step);
+                if (!clash) {
+                    aScheduled.add(st);
+                }
+            } else if (op < 70) {
+                aManager.removeShowtime(aScheduled.remove(random.nextInt(aScheduled.size())));
+            } else if (op < 95) {
+                Showtime st = aScheduled.get(random.nextInt(aScheduled.size()));
+                Movie oldMovie = st.getMovie();
+                LocalDateTime oldStart = st.getShowtime();
+                Showroom oldRoom = st.getShowroom();
+                boolean clash = overlaps(movie, room, start, movie.getScreenTime(), st);
+                assertEquals(clash, rejects(() -> st.reschedule(movie, start, room)), "move at step " + step);
+                if (clash) {
+                    assertSame(oldMovie, st.getMovie());
+                    assertEquals(oldStart, st.getShowtime());
+                    assertSame(oldRoom, st.getShowroom());
+                }
+            } else {
+                Duration runtime = Duration.ofMinutes(30 + random.nextInt(170));
+                Duration screenTime = runtime.plus(Movie.CLEANING_BUFFER);
+                boolean clash = false;
+                for (Showtime st : aScheduled) {
+                    if (st.getMovie() == movie
+                            && overlaps(movie, st.getShowroom(), st.getShowtime(), screenTime, st)) {
+                        clash = true;
+                        break;
+                    }
+                }
+                Duration before = movie.getRuntime();
+                assertEquals(clash, rejects(() -> movie.setRuntime(runtime)), "runtime at step " + step);
+                assertEquals(clash ? before : runtime, movie.getRuntime());
+            }
+        }
+    }
+
+    /**
+     * Edits a movie whose new runtime or name is rejected, and checks that neither field
+     * changed.
+     */
+    @Test
+    void rejectedMovieEditChangesNothing() {
+        MovieManager movies = MovieManager.getMovieManagerInstance();
+        Movie movie = new Movie("Edit Test", Duration.ofMinutes(60));
+        Movie other = new Movie("Edit Test Other", Duration.ofMinutes(60));
+        Showroom room = new Showroom(9260, 50);
+        movies.addMovies(List.of(movie, other));
+        try {
+            Showtime first = new Showtime(movie, aBase, room);
+            Showtime second = new Showtime(other, aBase.plusMinutes(90), room);
+            aManager.addShowtimes(List.of(first, second));
+            aScheduled.addAll(List.of(first, second));
+
+            assertTrue(rejects(() -> movie.update("Edit Test Renamed", Duration.ofMinutes(120))));
+            assertEquals("Edit Test", movie.getName());
+            assertEquals(Duration.ofMinutes(60), movie.getRuntime());
+            assertSame(movie, movies.findByName("Edit Test"));
+
+            assertTrue(rejects(() -> movie.update("Edit Test Other", Duration.ofMinutes(70))));
+            assertEquals("Edit Test", movie.getName());
+            assertEquals(Duration.ofMinutes(60), movie.getRuntime());
+
+            movie.update("Edit Test Renamed", Duration.ofMinutes(70));
+            assertEquals(Duration.ofMinutes(70), movie.getRuntime());
+            assertSame(movie, movies.findByName("Edit Test Renamed"));
+            assertNull(movies.findByName("Edit Test"));
+        } finally {
+            movies.removeMovies(List.of(movie, other));
+        }
+    }
+
+    /**
+     * Adds, moves and removes showings at random, and compares the time-range and
+     * per-movie queries with a filter over the whole catalog.
+     */
+    @Test
+    void queriesMatchBruteForce() {
+        Random random = new Random(22);
+        List<Showroom> rooms = new ArrayList<>();
+        for (int number = 9201; number <= 9240; number++) {
+            rooms.add(new Showroom(number, 50));
+        }
+        List<Movie> movies = List.of(new Movie("Range One", Duration.ofMinutes(30)),
+                new Movie("Range Two", Duration.ofMinutes(60)), new Movie("Range Three", Duration.ofMinutes(90)));
+        for (int step = 0; step < 3_000; step++) {
+            int op = random.nextInt(100);
+            LocalDateTime start = aBase.plusMinutes(15L * random.nextInt(1_000));
+            try {
+                if (aScheduled.isEmpty() || op < 50) {
+                    Showtime st = new Showtime(movies.get(random.nextInt(movies.size())), start,
+                            rooms.get(random.nextInt(rooms.size())));
+                    aManager.addShowtime(st);
+                    aScheduled.add(st);
+                } else if (op < 65) {
+                    aManager.removeShowtime(aScheduled.remove(random.nextInt(aScheduled.size())));
+                } else if (op < 80) {
+                    aScheduled.get(random.nextInt(aScheduled.size())).setShowtime(start);
+                } else if (op < 90) {
+                    aScheduled.get(random.nextInt(aScheduled.size())).setDate(start.toLocalDate());
+                } else {
+                    aScheduled.get(random.nextInt(aScheduled.size())).setTime(start.toLocalTime().toString());
+                }
+            } catch (IllegalArgumentException e) {
+                // The showing would overlap another one; nothing changed
+            }
+
+            LocalDateTime from = aBase.plusMinutes(15L * random.nextInt(1_000) - 60);
+            LocalDateTime to = from.plusMinutes(15L * random.nextInt(200));
+            assertEquals(filter(st -> !st.getShowtime().isBefore(from) && st.getShowtime().isBefore(to)),
+                    aManager.getShowtimesBetween(from, to), "between at step " + step);
+            LocalDate date = from.toLocalDate();
+            assertEquals(filter(st -> st.getShowtime().toLocalDate().equals(date)),
+                    aManager.getShowtimesOn(date), "on at step " + step);
+            int count = random.nextInt(20);
+            List<Showtime> next = filter(st -> !st.getShowtime().isBefore(from));
+            assertEquals(next.subList(0, Math.min(count, next.size())),
+                    aManager.getNextShowtimes(from, count), "next at step " + step);
+            Movie movie = movies.get(random.nextInt(movies.size()));
+            assertEquals(filter(st -> st.getMovie() == movie), aManager.getShowtimes(movie), "movie at step " + step);
+        }
+    }
+
+    /**
+     * Browses the showtimes from another thread while a writer holds the store, as a
+     * writer does while its listeners update the UI.
+     */
+    @Test
+    void queriesDoNotWaitForWriters() throws InterruptedException, ExecutionException, TimeoutException {
+        Movie movie = new Movie("Browse Test");
+        Showtime st = new Showtime(movie, aBase, new Showroom(9250, 50));
+        aManager.addShowtime(st);
+        aScheduled.add(st);
+        synchronized (ShowtimeManager.getCatalog()) {
+            List<List<Showtime>> found = CompletableFuture.supplyAsync(() -> List.of(aManager.getShowtimes(movie),
+                    aManager.getShowtimesBetween(aBase, aBase.plusMinutes(1)),
+                    aManager.getNextShowtimes(aBase, 1))).get(5, TimeUnit.SECONDS);
+            assertEquals(List.of(List.of(st), List.of(st), List.of(st)), found);
+        }
+    }
+
+    /**
+     * Filters the whole catalog and sorts the result like the indexes do.
+     */
+    private static List<Showtime> filter(Predicate<Showtime> pCondition) {
+        List<Showtime> result = new ArrayList<>();
+        for (Showtime st : ShowtimeManager.getCatalog().snapshot()) {
+            if (pCondition.test(st)) {
+                result.add(st);
+            }
+        }
+        result.sort(START_ORDER);
+        return result;
+    }
+
+    /**
+     * Tells if a showing would overlap another scheduled showing of its room, checking
+     * every showing. Showings of the movie whose screen time is checked use that screen time.
+     */
+    private boolean overlaps(Movie pMovie, Showroom pRoom, LocalDateTime pStart, Duration pScreenTime,
+                             Showtime pIgnore) {
+        LocalDateTime end = pStart.plus(pScreenTime);
+        for (Showtime other : aScheduled) {
+            if (other == pIgnore || other.getShowroom() != pRoom) {
+                continue;
+            }
+            Duration otherScreenTime = other.getMovie() == pMovie ? pScreenTime : other.getMovie().getScreenTime();
+            LocalDateTime otherEnd = other.getShowtime().plus(otherScreenTime);
+            if (pStart.isBefore(otherEnd) && other.getShowtime().isBefore(end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean rejects(Runnable pAction) {
+        try {
+            pAction.run();
+            return false;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+}
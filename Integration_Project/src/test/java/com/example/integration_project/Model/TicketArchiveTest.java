@@ -0,0 +1,131 @@
+package com.example.integration_project.Model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that the {@link TicketArchive} only reports a showtime as archived once its
+ * records are committed, also across restarts, and never archives a ticket twice.
+ *
+ * @author Dieudonné
+ * @version 1.0
+ */
+class TicketArchiveTest {
+
+    /** Size of the dictionary entry that commits the record count of a showtime. */
+    private static final int COUNT_ENTRY_BYTES = 17;
+
+    @TempDir
+    Path aDirectory;
+
+    private Showtime aShowtime;
+
+    @BeforeEach
+    void setUp() {
+        aShowtime = new Showtime(new Movie("Archive Test"), LocalDateTime.now().plusDays(30).withNano(0),
+                new Showroom(7, 30));
+    }
+
+    @Test
+    void showtimeIsArchivedOnceItsRecordsAreCommitted() throws IOException {
+        try (TicketArchive archive = new TicketArchive(aDirectory)) {
+            assertFalse(archive.isArchived(aShowtime));
+            assertEquals(3, archive.append(aShowtime, tickets("T", 3)));
+            assertTrue(archive.isArchived(aShowtime));
+        }
+        try (TicketArchive archive = new TicketArchive(aDirectory)) {
+            assertTrue(archive.isArchived(aShowtime));
+            assertEquals(3, archive.size());
+            assertEquals("T1", archive.get(0).getaTicketID());
+            // Ids of the last run mean nothing now; the names still do
+            assertEquals("Archive Test", archive.get(0).getName());
+            assertEquals(0, archive.get(0).getMovieID());
+            assertEquals(0, archive.get(0).getShowtimeID());
+        }
+    }
+
+    @Test
+    void crashBeforeTheCountLeavesTheShowtimeUnarchived() throws IOException {
+        try (TicketArchive archive = new TicketArchive(aDirectory)) {
+            archive.append(aShowtime, tickets("T", 2));
+        }
+        // The records and segment counts are durable, the showtime's count is not
+        cutDictionary(COUNT_ENTRY_BYTES);
+        try (TicketArchive archive = new TicketArchive(aDirectory)) {
+            assertEquals(2, archive.size());
+            assertFalse(archive.isArchived(aShowtime));
+        }
+    }
+
+    @Test
+    void tornCountIsCutOff() throws IOException {
+        try (TicketArchive archive = new TicketArchive(aDirectory)) {
+            archive.append(aShowtime, tickets("T", 2));
+        }
+        cutDictionary(5);
+        try (TicketArchive archive = new TicketArchive(aDirectory)) {
+            assertFalse(archive.isArchived(aShowtime));
+        }
+    }
+
+    @Test
+    void ticketsAlreadyArchivedAreSkipped() throws IOException {
+        try (TicketArchive archive = new TicketArchive(aDirectory)) {
+            archive.append(aShowtime, tickets("T", 3));
+        }
+        try (TicketArchive archive = new TicketArchive(aDirectory)) {
+            Set<String> skipped = new HashSet<>();
+            assertEquals(1, archive.append(aShowtime, tickets("T", 4), skipped));
+            assertEquals(Set.of("T1", "T2", "T3"), skipped);
+            assertEquals(4, archive.size());
+            assertEquals("T4", archive.get(3).getaTicketID());
+            assertEquals(0, archive.append(aShowtime, tickets("T", 4)));
+        }
+    }
+
+    @Test
+    void reArchivingRepairsACountCutByACrash() throws IOException {
+        try (TicketArchive archive = new TicketArchive(aDirectory)) {
+            archive.append(aShowtime, tickets("T", 2));
+        }
+        cutDictionary(COUNT_ENTRY_BYTES);
+        try (TicketArchive archive = new TicketArchive(aDirectory)) {
+            // The journal restored the tickets, so they come back to be archived
+            assertEquals(0, archive.append(aShowtime, tickets("T", 2)));
+            assertTrue(archive.isArchived(aShowtime));
+            assertEquals(2, archive.size());
+        }
+        try (TicketArchive archive = new TicketArchive(aDirectory)) {
+            assertTrue(archive.isArchived(aShowtime));
+        }
+    }
+
+    private List<Ticket> tickets(String pPrefix, int pCount) {
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 1; i <= pCount; i++) {
+            tickets.add(new Ticket(pPrefix + i, aShowtime, "A" + i, LocalDateTime.now().withNano(0)));
+        }
+        return tickets;
+    }
+
+    private void cutDictionary(int pBytes) throws IOException {
+        try (FileChannel dictionary = FileChannel.open(aDirectory.resolve("dictionary.dat"), StandardOpenOption.WRITE)) {
+            dictionary.truncate(dictionary.size() - pBytes);
+        }
+    }
+}
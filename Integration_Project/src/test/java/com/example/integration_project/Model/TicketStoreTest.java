@@ -0,0 +1,205 @@
+package com.example.integration_project.Model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link TicketStore}: its id index, its sales counters and the admission of tickets.
+ *
+ * @author Dieudonné
+ * @version 1.0
+ */
+class TicketStoreTest {
+
+    private Movie aMovie;
+    private Showtime aShowtime;
+    private Showtime aOtherShowtime;
+    private TicketStore aStore;
+
+    @BeforeEach
+    void setUp() {
+        aMovie = new Movie("Store Test");
+        Showroom room = new Showroom(3, 50);
+        LocalDateTime start = LocalDateTime.now().plusDays(30).withNano(0);
+        aShowtime = new Showtime(aMovie, start, room);
+        aOtherShowtime = new Showtime(aMovie, start.plusHours(4), room);
+        aStore = new TicketStore();
+    }
+
+    @Test
+    void archivedTicketsKeepCounting() {
+        LocalDateTime now = LocalDateTime.now();
+        aStore.add(new Ticket("T1", aShowtime, "A1", now));
+        aStore.add(new Ticket("T2", aShowtime, "A2", now));
+        aStore.add(new Ticket("T3", aOtherShowtime, "A1", now));
+
+        // T1 was already archived (and counted from the archive) before
+        assertEquals(2, aStore.removeArchived(Set.of(aShowtime.getId()), Set.of("T1")));
+        assertEquals(1, aStore.size());
+        assertEquals(1, aStore.getSoldByShowtime(aShowtime.getId()));
+        assertEquals(2, aStore.getSoldByMovie(aMovie.getId()));
+        assertEquals(2, aStore.getRollup().getSales(SalesRollup.Granularity.DAY, now));
+
+        aStore.countSold(Map.of(aMovie.getId(), 5L), Map.of(aShowtime.getId(), 5L));
+        assertEquals(6, aStore.getSoldByShowtime(aShowtime.getId()));
+        assertEquals(7, aStore.getSoldByMovie(aMovie.getId()));
+    }
+
+    @Test
+    void rewritingATicketKeepsItUsed() {
+        LocalDateTime now = LocalDateTime.now();
+        aStore.add(new Ticket("T1", aShowtime, "A1", now));
+        aStore.add(new Ticket("T2", aShowtime, "A2", now));
+        assertEquals(TicketStore.Admission.ADMIT, aStore.redeem("T1"));
+        assertEquals(TicketStore.Admission.ADMIT, aStore.redeem("T2"));
+
+        // Same id, other seat: still used; another id in the row: a fresh ticket
+        aStore.set(0, new Ticket("T1", aShowtime, "B1", now));
+        aStore.set(1, new Ticket("T4", aShowtime, "A2", now));
+        assertEquals(TicketStore.Admission.ALREADY_USED, aStore.validate("T1"));
+        assertEquals(TicketStore.Admission.ADMIT, aStore.validate("T4"));
+        assertEquals(TicketStore.Admission.UNKNOWN, aStore.validate("T2"));
+
+        assertTrue(aStore.setRedeemed("T1", false));
+        assertEquals(TicketStore.Admission.ADMIT, aStore.redeem("T1"));
+        assertFalse(aStore.setRedeemed("T2", true));
+    }
+
+    /**
+     * Runs random inserts, removals, rewrites and range removals against a plain list and
+     * checks after every step that each id is found exactly where the list has it. The few
+     * ids are reused all the time, so the index keeps handing rows over between duplicates.
+     */
+    @Test
+    void indexFollowsRandomChanges() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Ticket> pool = new ArrayList<>();
+        for (long number = 1; number <= 12; number++) {
+            pool.add(new Ticket(number, aShowtime, "A" + number, now));
+        }
+        // The display string of a ticket number, held as a plain string id
+        pool.add(new Ticket(TicketIdGenerator.format(3), aShowtime, "B3", now));
+        for (int i = 0; i < 12; i++) {
+            pool.add(new Ticket(UUID.randomUUID().toString(), aOtherShowtime, "C" + i, now));
+            pool.add(new Ticket("S" + i, aOtherShowtime, null, now));
+        }
+        pool.add(new Ticket(null, aMovie.getName(), aShowtime.toString(), now));
+
+        for (long seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            TicketStore store = new TicketStore();
+            List<Ticket> expected = new ArrayList<>();
+            for (int step = 0; step < 2_000; step++) {
+                // Grow for a while, then shrink, so the index is resized both ways
+                boolean growing = step % 500 < 300;
+                int op = random.nextInt(100);
+                Ticket ticket = pool.get(random.nextInt(pool.size()));
+                if (expected.isEmpty() || op < (growing ? 55 : 25)) {
+                    int index = random.nextInt(expected.size() + 1);
+                    store.add(index, ticket);
+                    expected.add(index, ticket);
+                } else if (op < 65) {
+                    int index = random.nextInt(expected.size());
+                    store.remove(index);
+                    expected.remove(index);
+                } else if (op < 85) {
+                    int index = random.nextInt(expected.size());
+                    store.set(index, ticket);
+                    expected.set(index, ticket);
+                } else if (op < 92) {
+                    int from = random.nextInt(expected.size());
+                    int to = from + random.nextInt(Math.min(expected.size() - from, 8) + 1);
+                    store.subList(from, to).clear();
+                    expected.subList(from, to).clear();
+                } else {
+                    int index = random.nextInt(expected.size() + 1);
+                    List<Ticket> batch = Collections.nCopies(random.nextInt(4) + 1, ticket);
+                    store.addAll(index, batch);
+                    expected.addAll(index, batch);
+                }
+                assertMatches(expected, store, pool, "seed " + seed + ", step " + step);
+            }
+        }
+    }
+
+    @Test
+    void everyTicketIsAdmittedOnceAcrossScanners() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            Ticket ticket = new Ticket(i % 2 == 0 ? UUID.randomUUID().toString() : "G" + i, aShowtime, null, now);
+            aStore.add(ticket);
+            ids.add(ticket.getaTicketID());
+        }
+        AtomicIntegerArray admitted = new AtomicIntegerArray(ids.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> scanners = new ArrayList<>();
+        for (int s = 0; s < 4; s++) {
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i++) {
+                order.add(i);
+            }
+            Collections.shuffle(order, new Random(s));
+            Thread scanner = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i : order) {
+                    if (aStore.redeem(ids.get(i)) == TicketStore.Admission.ADMIT) {
+                        admitted.incrementAndGet(i);
+                    }
+                }
+            });
+            scanner.start();
+            scanners.add(scanner);
+        }
+        start.countDown();
+        for (Thread scanner : scanners) {
+            scanner.join();
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(1, admitted.get(i), ids.get(i));
+            assertEquals(TicketStore.Admission.ALREADY_USED, aStore.validate(ids.get(i)));
+        }
+    }
+
+    private static void assertMatches(List<Ticket> pExpected, TicketStore pStore, List<Ticket> pPool, String pStep) {
+        assertEquals(pExpected.size(), pStore.size(), pStep);
+        for (int row = 0; row < pExpected.size(); row++) {
+            assertEquals(pExpected.get(row).getaTicketID(), pStore.get(row).getaTicketID(), pStep);
+        }
+        for (Ticket ticket : pPool) {
+            String id = ticket.getaTicketID();
+            if (id == null) {
+                continue;
+            }
+            boolean listed = pExpected.stream().anyMatch(t -> id.equals(t.getaTicketID()));
+            int row = pStore.indexOfTicket(id);
+            if (!listed) {
+                assertEquals(-1, row, pStep + ": " + id);
+            } else {
+                assertTrue(row >= 0, pStep + ": " + id);
+                assertEquals(id, pExpected.get(row).getaTicketID(), pStep + ": " + id);
+                assertEquals(id, Objects.requireNonNull(pStore.findTicket(id), id).getaTicketID(), pStep);
+            }
+        }
+    }
+}